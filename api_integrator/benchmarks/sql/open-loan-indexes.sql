@@ -0,0 +1,136 @@
+-- Plan comparison for the open-loan partial indexes (migration V5__open_loan_indexes.sql)
+-- on a generated 10M-row borrowed_books table.
+--
+-- Run against a scratch PostgreSQL (11 or later) database, never production:
+--
+--   psql -d library_bench -f benchmarks/sql/open-loan-indexes.sql > open-loan-indexes.out
+--
+-- Everything is created in the loan_bench schema, which the script drops first. The table has
+-- the columns and annotation indexes of borrowed_books. 95% of the loans are returned history
+-- spread over five years; 5% are open, borrowed within the last 30 days. A fifth of the open loans
+-- that are past due are already OVERDUE, the rest are still BORROWED and wait for the sweep.
+-- Each hot query is run with EXPLAIN (ANALYZE, BUFFERS): first with the annotation indexes only,
+-- then again after the partial indexes are added. Compare the plan nodes (Index Only Scan on
+-- the *_open indexes instead of Bitmap Heap Scan / Index Scan with a status filter) and the
+-- shared buffers each plan touches. Generating the rows takes a few minutes; set
+-- loan_bench.rows lower for a quick check.
+
+SET loan_bench.rows = '10000000';
+SET loan_bench.members = '200000';
+SET loan_bench.books = '100000';
+
+DROP SCHEMA IF EXISTS loan_bench CASCADE;
+CREATE SCHEMA loan_bench;
+SET search_path = loan_bench;
+
+CREATE TABLE borrowed_books (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    member_id bigint NOT NULL,
+    book_id bigint NOT NULL,
+    borrow_date date NOT NULL,
+    due_date date,
+    return_date date,
+    status varchar(255) NOT NULL,
+    notes varchar(500),
+    created_at timestamp,
+    updated_at timestamp
+);
+
+-- Returned history first and the open loans last, as in a live table where recent loans are the
+-- most recently inserted rows
+INSERT INTO borrowed_books (member_id, book_id, borrow_date, due_date, return_date, status, created_at, updated_at)
+SELECT 1 + (random() * (current_setting('loan_bench.members')::int - 1))::int,
+       1 + (random() * (current_setting('loan_bench.books')::int - 1))::int,
+       d, d + 14, d + (random() * 20)::int, 'RETURNED', d, d
+FROM (SELECT current_date - 31 - (random() * 1800)::int AS d
+      FROM generate_series(1, (current_setting('loan_bench.rows')::bigint * 95 / 100)) g) history;
+
+INSERT INTO borrowed_books (member_id, book_id, borrow_date, due_date, status, created_at, updated_at)
+SELECT 1 + (random() * (current_setting('loan_bench.members')::int - 1))::int,
+       1 + (random() * (current_setting('loan_bench.books')::int - 1))::int,
+       d, d + 14, CASE WHEN d + 14 < current_date AND random() < 0.2 THEN 'OVERDUE' ELSE 'BORROWED' END, d, d
+FROM (SELECT current_date - (random() * 30)::int AS d
+      FROM generate_series(1, (current_setting('loan_bench.rows')::bigint * 5 / 100)) g) open_loans;
+
+-- Indexes declared on the BorrowedBook entity
+CREATE INDEX idx_borrowed_book_member ON borrowed_books (member_id);
+CREATE INDEX idx_borrowed_book_book ON borrowed_books (book_id);
+CREATE INDEX idx_borrowed_book_status_due ON borrowed_books (status, due_date);
+CREATE INDEX idx_borrowed_book_dates ON borrowed_books (borrow_date, due_date);
+VACUUM ANALYZE borrowed_books;
+
+SELECT status, count(*) AS loans FROM borrowed_books GROUP BY status ORDER BY status;
+
+-- Pick a member and a book that have open loans, as the desk would
+SELECT set_config('loan_bench.member_id', min(member_id)::text, false),
+       set_config('loan_bench.book_id', min(book_id)::text, false)
+FROM borrowed_books WHERE status = 'BORROWED' AND member_id > 1000 AND book_id > 1000;
+
+-- ---------------------------------------------------------------------------------------------
+-- Before: annotation indexes only
+-- ---------------------------------------------------------------------------------------------
+
+-- BorrowedBookRepository.findActiveBorrowsByMember
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM borrowed_books
+WHERE member_id = current_setting('loan_bench.member_id')::bigint AND status IN ('BORROWED', 'OVERDUE');
+
+-- MemberRepository.countCurrentBorrowsByMember
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(id) FROM borrowed_books
+WHERE member_id = current_setting('loan_bench.member_id')::bigint AND status IN ('BORROWED', 'OVERDUE');
+
+-- BookRepository.countCurrentBorrowsByBook
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(id) FROM borrowed_books
+WHERE book_id = current_setting('loan_bench.book_id')::bigint AND status IN ('BORROWED', 'OVERDUE');
+
+-- BorrowedBookRepository.countCurrentBorrows
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(id) FROM borrowed_books WHERE status IN ('BORROWED', 'OVERDUE');
+
+-- OverdueService sweep: one batch of CirculationBatchRepository.markOverdue
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM borrowed_books WHERE status = 'BORROWED' AND due_date < current_date LIMIT 1000;
+
+-- OverdueService due-date slots: CirculationBatchRepository.findLoansDueBetween
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, due_date FROM borrowed_books
+WHERE status = 'BORROWED' AND due_date >= current_date AND due_date < current_date + 7;
+
+-- ---------------------------------------------------------------------------------------------
+-- After: the statements of V5__open_loan_indexes.sql (without CONCURRENTLY, nothing else writes)
+-- ---------------------------------------------------------------------------------------------
+
+CREATE INDEX idx_borrowed_book_member_open ON borrowed_books (member_id) INCLUDE (id) WHERE status IN ('BORROWED', 'OVERDUE');
+CREATE INDEX idx_borrowed_book_book_open ON borrowed_books (book_id) INCLUDE (id) WHERE status IN ('BORROWED', 'OVERDUE');
+CREATE INDEX idx_borrowed_book_due_open ON borrowed_books (due_date) INCLUDE (id) WHERE status = 'BORROWED';
+VACUUM ANALYZE borrowed_books;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM borrowed_books
+WHERE member_id = current_setting('loan_bench.member_id')::bigint AND status IN ('BORROWED', 'OVERDUE');
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(id) FROM borrowed_books
+WHERE member_id = current_setting('loan_bench.member_id')::bigint AND status IN ('BORROWED', 'OVERDUE');
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(id) FROM borrowed_books
+WHERE book_id = current_setting('loan_bench.book_id')::bigint AND status IN ('BORROWED', 'OVERDUE');
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(id) FROM borrowed_books WHERE status IN ('BORROWED', 'OVERDUE');
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM borrowed_books WHERE status = 'BORROWED' AND due_date < current_date LIMIT 1000;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, due_date FROM borrowed_books
+WHERE status = 'BORROWED' AND due_date >= current_date AND due_date < current_date + 7;
+
+-- Index sizes: the partial indexes cover only the open loans
+SELECT indexrelname AS index, pg_size_pretty(pg_relation_size(indexrelid)) AS size
+FROM pg_stat_user_indexes WHERE schemaname = 'loan_bench' ORDER BY pg_relation_size(indexrelid) DESC;
+
+-- DROP SCHEMA loan_bench CASCADE;
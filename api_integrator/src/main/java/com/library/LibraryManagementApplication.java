@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 
 // Exclude the default security auto-configuration to use our custom one
@@ -17,6 +18,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 @EnableJpaRepositories
 @ComponentScan(basePackages = {"com.library"})
 @EnableWebSecurity
+@EnableScheduling
 public class LibraryManagementApplication {
     
     private static final Logger logger = LoggerFactory.getLogger(LibraryManagementApplication.class);
@@ -0,0 +1,50 @@
+package com.library.config;
+
+import com.library.service.CatalogImportService;
+import com.library.service.CatalogImportService.Format;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports a catalog file at startup when {@code library.import.file} (LIBRARY_IMPORT_FILE) is set.
+ * Files ending in .csv are read as CSV, anything else as JSON lines. Runs after {@link DataInitializer}.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "library.import.file")
+public class CatalogImportRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportRunner.class);
+
+    private final CatalogImportService catalogImportService;
+
+    @Value("${library.import.file}")
+    private String file;
+
+    @Autowired
+    public CatalogImportRunner(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Path path = Path.of(file);
+        if (!Files.isRegularFile(path)) {
+            logger.error("Catalog import file not found: {}", path.toAbsolutePath());
+            return;
+        }
+        try (InputStream input = Files.newInputStream(path)) {
+            catalogImportService.importBooks(input, Format.fromFileName(file));
+        }
+    }
+}
@@ -10,12 +10,14 @@ import com.library.service.MemberService;
 import com.library.service.BorrowedBookService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 
 @Component
+@Order(0)
 public class DataInitializer implements CommandLineRunner {
 
     private final AuthorService authorService;
@@ -63,12 +65,12 @@ public class DataInitializer implements CommandLineRunner {
         Book gatsby = new Book("The Great Gatsby", "978-0-7432-7356-5", "Fiction", 2020, 
                 "A classic American novel about the Jazz Age", scott);
         gatsby.setTotalCopies(3);
-        gatsby.setAvailableCopies(2);
+        gatsby.setAvailableCopies(3);
 
         Book nineteen = new Book("1984", "978-0-452-28423-4", "Fiction", 1949, 
                 "A dystopian social science fiction novel", orwell);
         nineteen.setTotalCopies(2);
-        nineteen.setAvailableCopies(1);
+        nineteen.setAvailableCopies(2);
 
         Book mockingbird = new Book("To Kill a Mockingbird", "978-0-06-112008-4", "Fiction", 1960, 
                 "A novel about racial injustice and childhood", harper);
@@ -78,7 +80,7 @@ public class DataInitializer implements CommandLineRunner {
         Book hobbit = new Book("The Hobbit", "978-0-547-92822-7", "Fantasy", 1937, 
                 "A fantasy adventure novel", tolkien);
         hobbit.setTotalCopies(1);
-        hobbit.setAvailableCopies(0);
+        hobbit.setAvailableCopies(1);
 
         Book pride = new Book("Pride and Prejudice", "978-0-14-143951-8", "Romance", 1813, 
                 "A romantic novel of manners", jane);
@@ -0,0 +1,23 @@
+package com.library.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Flyway settings that Spring Boot has no {@code spring.flyway.*} property for.
+ * <p>
+ * On PostgreSQL Flyway holds its migration lock in a transaction by default. {@code CREATE INDEX
+ * CONCURRENTLY} waits for every open transaction to finish, including that one, so a concurrent
+ * index migration would wait forever. The session-level lock avoids this.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer sessionLevelMigrationLock() {
+        return configuration -> configuration.configuration(Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.library.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics the actuator does not bind by itself. The rest comes from auto-configuration once
+ * Micrometer is present: {@code spring.data.repository.invocations} times every repository method
+ * (by repository, method and outcome), {@code hikaricp.*} covers pool usage and connection waits,
+ * and {@code hibernate.*} publishes the session factory statistics (statements, entity loads,
+ * second-level cache hits and misses) when {@code hibernate.generate_statistics} is on.
+ * <p>
+ * Added here: statements per request, counted by a Hibernate statement inspector, with a warning
+ * for requests over {@code library.diagnostics.statement-threshold} (0 disables it).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public RequestStatementCounter requestStatementCounter() {
+        return new RequestStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(RequestStatementCounter requestStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, requestStatementCounter);
+    }
+
+    @Bean
+    public StatementCountFilter statementCountFilter(
+            RequestStatementCounter requestStatementCounter,
+            MeterRegistry meterRegistry,
+            @Value("${library.diagnostics.statement-threshold:20}") int threshold) {
+        return new StatementCountFilter(requestStatementCounter, meterRegistry, threshold);
+    }
+}
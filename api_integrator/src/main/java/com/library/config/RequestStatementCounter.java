@@ -0,0 +1,36 @@
+package com.library.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #begin()} and
+ * {@link #end()}. Registered as the session factory's statement inspector, so it sees every query,
+ * entity and collection load and flush, but not plain JDBC such as CirculationBatchRepository,
+ * whose statements per call are fixed.
+ */
+public class RequestStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] current = count.get();
+        if (current != null) {
+            current[0]++;
+        }
+        return sql;
+    }
+
+    public void begin() {
+        count.set(new int[1]);
+    }
+
+    /**
+     * Stops counting and returns the statements since {@link #begin()}.
+     */
+    public int end() {
+        int[] current = count.get();
+        count.remove();
+        return current != null ? current[0] : 0;
+    }
+}
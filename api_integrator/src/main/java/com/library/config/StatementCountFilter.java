@@ -0,0 +1,69 @@
+package com.library.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many statements each request executes ({@code library.request.statements}, by
+ * method and URI template). A request over the threshold is logged with its count and counted in
+ * {@code library.request.statements.exceeded}, which is how an N+1 regression shows up: the count
+ * of a list endpoint grows with the page size. Only the request thread is counted, so the
+ * streamed exports, which run on the async executor, record the statements of their setup only.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCountFilter.class);
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final RequestStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final int threshold;
+
+    public StatementCountFilter(RequestStatementCounter counter, MeterRegistry meterRegistry, int threshold) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        counter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = counter.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+
+            DistributionSummary.builder("library.request.statements")
+                    .description("SQL statements executed per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+
+            if (threshold > 0 && statements > threshold) {
+                Counter.builder("library.request.statements.exceeded")
+                        .description("Requests that executed more statements than library.diagnostics.statement-threshold")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+                logger.warn("{} {} executed {} statements (threshold {})",
+                        request.getMethod(), request.getRequestURI(), statements, threshold);
+            }
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.library.config;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.slf4j.Logger;
@@ -32,4 +36,22 @@ public class WebConfig implements WebMvcConfigurer {
         
         logger.info("CORS configuration completed with expanded origins");
     }
+
+    /**
+     * ETags on catalog reads, so callers that cache them (the main API gateway) can revalidate with
+     * If-None-Match and get a 304 instead of the body. The ETag is a hash of the rendered body;
+     * streamed exports are left out because the filter buffers the whole response.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> catalogEtagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return !"GET".equals(request.getMethod()) || request.getRequestURI().endsWith("/export");
+            }
+        };
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/books/*", "/authors/*");
+        return registration;
+    }
 } 
\ No newline at end of file
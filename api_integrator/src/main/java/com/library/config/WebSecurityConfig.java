@@ -1,5 +1,6 @@
 package com.library.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -60,6 +61,9 @@ public class WebSecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // The async dispatch of a streamed export was authorized on the initial request;
+                // the API key filter does not run again for it
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/", "/swagger-ui/**", "/api-docs/**", "/v3/api-docs/**", "/swagger-ui.html", 
                         "/webjars/**", "/swagger-resources/**", "/configuration/**", "/error").permitAll()
                 .requestMatchers("/books/**").hasAnyRole("ADMIN", "BOOKS")
@@ -68,6 +72,8 @@ public class WebSecurityConfig {
                 .requestMatchers("/security-test/books-role").hasAnyRole("ADMIN", "BOOKS")
                 .requestMatchers("/security-test/authors-role").hasAnyRole("ADMIN", "AUTHORS")
                 .requestMatchers("/security-test/admin-role").hasRole("ADMIN")
+                .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api-auth-test").authenticated()
                 .requestMatchers("/swagger-test").permitAll()
                 .anyRequest().authenticated()
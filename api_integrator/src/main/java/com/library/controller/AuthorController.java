@@ -2,6 +2,7 @@ package com.library.controller;
 
 import com.library.model.Author;
 import com.library.service.AuthorService;
+import com.library.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,8 +17,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,13 +32,16 @@ import java.util.Optional;
 public class AuthorController {
     
     private final AuthorService authorService;
+    private final ExportService exportService;
     
     @Autowired
-    public AuthorController(AuthorService authorService) {
+    public AuthorController(AuthorService authorService, ExportService exportService) {
         this.authorService = authorService;
+        this.exportService = exportService;
     }
     
-    @Operation(summary = "Get all authors with pagination and filtering", description = "Retrieves a paginated list of authors with optional search term")
+    @Operation(summary = "Get all authors with pagination and filtering", description = "Retrieves a paginated list of authors with optional search term. " +
+            "With 'after' (empty for the first page) it returns a cursor page without a total count")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved authors",
             content = @Content(mediaType = "application/json",
@@ -43,15 +49,23 @@ public class AuthorController {
         @ApiResponse(responseCode = "400", description = "Invalid input parameters")
     })
     @GetMapping
-    public ResponseEntity<Page<Author>> getAllAuthors(
+    public ResponseEntity<?> getAllAuthors(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Field to sort by") @RequestParam(defaultValue = "name") String sortBy,
             @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "asc") String sortDir,
-            @Parameter(description = "Search term for name or nationality") @RequestParam(required = false) String search) {
+            @Parameter(description = "Search term for name or nationality") @RequestParam(required = false) String search,
+            @Parameter(description = "Cursor from the previous page's nextCursor (empty for the first page); enables cursor pagination") @RequestParam(required = false) String after) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        
+        if (after != null) {
+            if (search != null && !search.trim().isEmpty()) {
+                throw new IllegalArgumentException("Cursor pagination is not available for search results");
+            }
+            return ResponseEntity.ok(authorService.findAllAfter(after, size, sort));
+        }
         Pageable pageable = PageRequest.of(page, size, sort);
         
         Page<Author> authors;
@@ -70,6 +84,18 @@ public class AuthorController {
         return ResponseEntity.ok(authors);
     }
     
+    @Operation(summary = "Export all authors as a stream", description = "Streams every author as JSON lines (format=ndjson, default) or one JSON array (format=json)")
+    @ApiResponse(responseCode = "200", description = "Authors streamed")
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<StreamingResponseBody> exportAuthors(
+            @Parameter(description = "ndjson or json") @RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = ExportService.Format.fromParameter(format);
+        StreamingResponseBody body = output -> exportService.exportAuthors(output, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+    
     @Operation(summary = "Get author by ID", description = "Retrieves an author by their ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved author"),
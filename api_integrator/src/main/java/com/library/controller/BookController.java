@@ -1,7 +1,11 @@
 package com.library.controller;
 
+import com.library.dto.CategoryCount;
+import com.library.dto.ImportReport;
 import com.library.model.Book;
 import com.library.service.BookService;
+import com.library.service.CatalogImportService;
+import com.library.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,16 +13,21 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,13 +38,19 @@ import java.util.Optional;
 public class BookController {
     
     private final BookService bookService;
+    private final CatalogImportService catalogImportService;
+    private final ExportService exportService;
     
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, CatalogImportService catalogImportService,
+                          ExportService exportService) {
         this.bookService = bookService;
+        this.catalogImportService = catalogImportService;
+        this.exportService = exportService;
     }
     
-    @Operation(summary = "Get all books with pagination and filtering", description = "Retrieves a paginated list of books with optional filtering by search term, category, author, year range, and availability")
+    @Operation(summary = "Get all books with pagination and filtering", description = "Retrieves a paginated list of books with optional filtering by search term, category, author, year range, and availability; all given filters apply together. " +
+            "With 'after' (empty for the first page) it returns a cursor page instead: no total count, and the cost of a page does not grow with its depth")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved books",
             content = @Content(mediaType = "application/json",
@@ -43,37 +58,40 @@ public class BookController {
         @ApiResponse(responseCode = "400", description = "Invalid input parameters")
     })
     @GetMapping
-    public ResponseEntity<Page<Book>> getAllBooks(
+    public ResponseEntity<?> getAllBooks(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "10") int size,
-            @Parameter(description = "Field to sort by") @RequestParam(defaultValue = "title") String sortBy,
+            @Parameter(description = "Field to sort by (defaults to relevance when searching, title otherwise)") @RequestParam(required = false) String sortBy,
             @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "asc") String sortDir,
             @Parameter(description = "Search term for title, category, author, or ISBN") @RequestParam(required = false) String search,
             @Parameter(description = "Filter by category") @RequestParam(required = false) String category,
             @Parameter(description = "Filter by author ID") @RequestParam(required = false) Long authorId,
-            @Parameter(description = "Start year for publishing year range") @RequestParam(required = false) Integer startYear,
-            @Parameter(description = "End year for publishing year range") @RequestParam(required = false) Integer endYear,
-            @Parameter(description = "Filter by availability") @RequestParam(required = false) Boolean available) {
+            @Parameter(description = "Start year for publishing year range (inclusive)") @RequestParam(required = false) Integer startYear,
+            @Parameter(description = "End year for publishing year range (inclusive)") @RequestParam(required = false) Integer endYear,
+            @Parameter(description = "Filter by availability") @RequestParam(required = false) Boolean available,
+            @Parameter(description = "Cursor from the previous page's nextCursor (empty for the first page); enables cursor pagination") @RequestParam(required = false) String after) {
         
+        boolean searching = search != null && !search.trim().isEmpty();
+        if (sortBy == null || sortBy.trim().isEmpty()) {
+            sortBy = searching ? "relevance" : "title";
+        }
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<Book> books;
+        // Every given filter applies, combined into one query
+        Specification<Book> filter = bookService.buildFilter(category, authorId, startYear, endYear, available);
         
-        if (search != null && !search.trim().isEmpty()) {
-            books = bookService.findBySearchTerm(search, pageable);
-        } else if (category != null && !category.trim().isEmpty()) {
-            books = bookService.findByCategory(category, pageable);
-        } else if (authorId != null) {
-            books = bookService.findByAuthorId(authorId, pageable);
-        } else if (startYear != null && endYear != null) {
-            books = bookService.findByPublishingYearRange(startYear, endYear, pageable);
-        } else if (available != null) {
-            books = available ? bookService.findAvailableBooks(pageable) : bookService.findUnavailableBooks(pageable);
-        } else {
-            books = bookService.findAll(pageable);
+        if (after != null) {
+            if (searching) {
+                throw new IllegalArgumentException("Cursor pagination is not available for search results");
+            }
+            return ResponseEntity.ok(bookService.findAllAfter(after, size, sort, filter));
         }
+        Pageable pageable = PageRequest.of(page, size, sort);
+        
+        Page<Book> books = searching
+                ? bookService.findBySearchTerm(search, filter, pageable)
+                : bookService.findAll(filter, pageable);
         
         return ResponseEntity.ok(books);
     }
@@ -86,6 +104,18 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
     
+    @Operation(summary = "Export all books as a stream", description = "Streams every book with its author as JSON lines (format=ndjson, default) or one JSON array (format=json) without loading the catalog into memory")
+    @ApiResponse(responseCode = "200", description = "Books streamed")
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @Parameter(description = "ndjson or json") @RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = ExportService.Format.fromParameter(format);
+        StreamingResponseBody body = output -> exportService.exportBooks(output, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+    
     @Operation(summary = "Get book by ID", description = "Retrieves a book by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved book"),
@@ -120,6 +150,13 @@ public class BookController {
         return ResponseEntity.ok(categories);
     }
     
+    @Operation(summary = "Get book counts per category", description = "Retrieves every category with its number of books and how many of them have a copy available")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved category counts")
+    @GetMapping("/categories/counts")
+    public ResponseEntity<List<CategoryCount>> getCategoryCounts() {
+        return ResponseEntity.ok(bookService.getCategoryCounts());
+    }
+    
     @Operation(summary = "Get available books", description = "Retrieves a paginated list of all available books")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved available books"),
@@ -167,6 +204,17 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedBook);
     }
     
+    @Operation(summary = "Import books in bulk", description = "Streams CSV with a header row (text/csv) or JSON lines (application/x-ndjson). Authors are matched by name and created when missing; books with an existing ISBN are skipped")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected rows")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportReport> importBooks(HttpServletRequest request) throws IOException {
+        ImportReport report = catalogImportService.importBooks(request.getInputStream(),
+                CatalogImportService.Format.fromContentType(request.getContentType()));
+        return ResponseEntity.ok(report);
+    }
+    
     @Operation(summary = "Update a book", description = "Updates an existing book by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Book updated successfully"),
@@ -204,12 +252,9 @@ public class BookController {
     
     @GetMapping("/{id}/availability")
     public ResponseEntity<Boolean> checkBookAvailability(@PathVariable Long id) {
-        if (!bookService.existsById(id)) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        boolean available = bookService.isAvailable(id);
-        return ResponseEntity.ok(available);
+        return bookService.findAvailability(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/{id}/borrow-count")
@@ -222,12 +267,13 @@ public class BookController {
         return ResponseEntity.ok(count);
     }
     
+    @Operation(summary = "Search books", description = "Ranked search over title, author, category and ISBN with prefix matching and typo tolerance; sort by 'relevance' (default) or a book field")
     @GetMapping("/search")
     public ResponseEntity<Page<Book>> searchBooks(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "relevance") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
@@ -1,5 +1,7 @@
 package com.library.controller;
 
+import com.library.dto.BatchResult;
+import com.library.dto.BatchReturnItem;
 import com.library.model.BorrowedBook;
 import com.library.model.BorrowedBook.BorrowStatus;
 import com.library.service.BorrowedBookService;
@@ -39,9 +41,15 @@ public class BorrowedBookController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all borrowed books with pagination")
-    public Page<BorrowedBook> getAllBorrowedBooks(Pageable pageable) {
-        return borrowedBookService.findAll(pageable);
+    @Operation(summary = "Get all borrowed books with pagination", description = "With 'after' (empty for the first page) it returns a cursor page without a total count, sorted by id or borrowDate")
+    public ResponseEntity<?> getAllBorrowedBooks(
+            @Parameter(description = "Cursor from the previous page's nextCursor (empty for the first page); enables cursor pagination") 
+            @RequestParam(required = false) String after,
+            Pageable pageable) {
+        if (after != null) {
+            return ResponseEntity.ok(borrowedBookService.findAllAfter(after, pageable.getPageSize(), pageable.getSort()));
+        }
+        return ResponseEntity.ok(borrowedBookService.findAll(pageable));
     }
     
     @GetMapping("/{id}")
@@ -88,6 +96,25 @@ public class BorrowedBookController {
         return borrowedBookService.findByBorrowDateBetween(startDate, endDate, pageable);
     }
     
+    @GetMapping("/search")
+    @Operation(summary = "Search borrowed books by member name or book title", description = "Matches substrings case-insensitively, optionally within a borrow date range")
+    public Page<BorrowedBook> searchBorrowedBooks(
+            @Parameter(description = "Part of a member name or book title") @RequestParam String query,
+            @Parameter(description = "Start date (yyyy-MM-dd)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (yyyy-MM-dd)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            Pageable pageable) {
+        if (startDate != null || endDate != null) {
+            // Open ends stay inside the range PostgreSQL's date type accepts
+            return borrowedBookService.findBySearchTermAndDateRange(query,
+                    startDate != null ? startDate : LocalDate.of(1, 1, 1),
+                    endDate != null ? endDate : LocalDate.of(9999, 12, 31),
+                    pageable);
+        }
+        return borrowedBookService.findBySearchTerm(query, pageable);
+    }
+    
     @GetMapping("/overdue")
     @Operation(summary = "Get overdue books")
     public Page<BorrowedBook> getOverdueBooks(Pageable pageable) {
@@ -100,6 +127,18 @@ public class BorrowedBookController {
         return borrowedBookService.borrowBook(borrowedBook);
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Borrow several books in one transaction", description = "Returns one result per item in request order; failed items are skipped and the rest are committed together")
+    public BatchResult<BorrowedBook> borrowBooks(@RequestBody List<BorrowedBook> borrowedBooks) {
+        return borrowedBookService.borrowBooks(borrowedBooks);
+    }
+    
+    @PutMapping("/batch/return")
+    @Operation(summary = "Return several borrowed books in one transaction", description = "Returns one result per item in request order; the return date defaults to today")
+    public BatchResult<BorrowedBook> returnBooks(@RequestBody List<BatchReturnItem> items) {
+        return borrowedBookService.returnBooks(items);
+    }
+    
     @PutMapping("/{id}/return")
     @Operation(summary = "Return a borrowed book")
     public ResponseEntity<BorrowedBook> returnBook(
@@ -0,0 +1,34 @@
+package com.library.controller;
+
+import com.library.service.SecondLevelCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/cache")
+@Tag(name = "Cache Administration", description = "Second-level cache statistics")
+public class CacheController {
+    
+    private final SecondLevelCacheService secondLevelCacheService;
+    
+    @Autowired
+    public CacheController(SecondLevelCacheService secondLevelCacheService) {
+        this.secondLevelCacheService = secondLevelCacheService;
+    }
+    
+    @Operation(summary = "Get second-level cache statistics",
+            description = "Hit, miss and put counts for the entity, natural-id and query caches, in total and per region")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        return ResponseEntity.ok(secondLevelCacheService.getStatistics());
+    }
+}
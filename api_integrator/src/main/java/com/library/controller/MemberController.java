@@ -2,6 +2,7 @@ package com.library.controller;
 
 import com.library.model.Member;
 import com.library.model.Member.MembershipStatus;
+import com.library.service.ExportService;
 import com.library.service.MemberService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,8 +11,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,23 +25,34 @@ import java.util.Optional;
 public class MemberController {
     
     private final MemberService memberService;
+    private final ExportService exportService;
     
     @Autowired
-    public MemberController(MemberService memberService) {
+    public MemberController(MemberService memberService, ExportService exportService) {
         this.memberService = memberService;
+        this.exportService = exportService;
     }
     
     @GetMapping
-    public ResponseEntity<Page<Member>> getAllMembers(
+    public ResponseEntity<?> getAllMembers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) MembershipStatus status) {
+            @RequestParam(required = false) MembershipStatus status,
+            @RequestParam(required = false) String after) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        
+        // Cursor pagination: no count query, and deep pages cost the same as the first
+        if (after != null) {
+            if (search != null && !search.trim().isEmpty()) {
+                throw new IllegalArgumentException("Cursor pagination is not available for search results");
+            }
+            return ResponseEntity.ok(memberService.findAllAfter(after, size, sort, status));
+        }
         Pageable pageable = PageRequest.of(page, size, sort);
         
         Page<Member> members;
@@ -60,6 +74,16 @@ public class MemberController {
         return ResponseEntity.ok(members);
     }
     
+    // Streams every member as JSON lines (or one JSON array with format=json) in constant memory
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<StreamingResponseBody> exportMembers(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = ExportService.Format.fromParameter(format);
+        StreamingResponseBody body = output -> exportService.exportMembers(output, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Member> getMemberById(@PathVariable Long id) {
         Optional<Member> member = memberService.findById(id);
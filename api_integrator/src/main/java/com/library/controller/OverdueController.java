@@ -0,0 +1,44 @@
+package com.library.controller;
+
+import com.library.service.OverdueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/overdue")
+@Tag(name = "Overdue Administration", description = "Overdue loan transitions")
+public class OverdueController {
+    
+    private final OverdueService overdueService;
+    
+    @Autowired
+    public OverdueController(OverdueService overdueService) {
+        this.overdueService = overdueService;
+    }
+    
+    @Operation(summary = "Get overdue transition statistics",
+            description = "Loans marked overdue on their due date and by the periodic sweep, loans scheduled in memory and the current overdue count")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved overdue statistics")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        return ResponseEntity.ok(overdueService.getStatistics());
+    }
+    
+    @Operation(summary = "Run the overdue sweep now",
+            description = "Marks every open loan that is past due and returns the updated statistics")
+    @ApiResponse(responseCode = "200", description = "Sweep completed")
+    @PostMapping("/sweep")
+    public ResponseEntity<Map<String, Object>> sweep() {
+        overdueService.sweep();
+        return ResponseEntity.ok(overdueService.getStatistics());
+    }
+}
@@ -0,0 +1,62 @@
+package com.library.dto;
+
+/**
+ * Outcome of one operation in a batch request, in the same position as the request item.
+ */
+public class BatchItemResult<T> {
+    
+    private int index;
+    private boolean success;
+    private T result;
+    private String error;
+    
+    public BatchItemResult() {}
+    
+    public static <T> BatchItemResult<T> success(int index, T result) {
+        BatchItemResult<T> item = new BatchItemResult<>();
+        item.index = index;
+        item.success = true;
+        item.result = result;
+        return item;
+    }
+    
+    public static <T> BatchItemResult<T> failure(int index, String error) {
+        BatchItemResult<T> item = new BatchItemResult<>();
+        item.index = index;
+        item.success = false;
+        item.error = error;
+        return item;
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+    
+    public T getResult() {
+        return result;
+    }
+    
+    public void setResult(T result) {
+        this.result = result;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,46 @@
+package com.library.dto;
+
+import java.util.List;
+
+/**
+ * Per-item results of a batch request. Items that failed validation are reported and skipped;
+ * the remaining items are committed together.
+ */
+public class BatchResult<T> {
+    
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResult<T>> items;
+    
+    public BatchResult() {}
+    
+    public BatchResult(List<BatchItemResult<T>> items) {
+        this.items = items;
+        this.succeeded = (int) items.stream().filter(BatchItemResult::isSuccess).count();
+        this.failed = items.size() - succeeded;
+    }
+    
+    public int getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<BatchItemResult<T>> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<BatchItemResult<T>> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,30 @@
+package com.library.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One return in a batch return request; the return date defaults to today.
+ */
+public class BatchReturnItem {
+    
+    private Long id;
+    private LocalDate returnDate;
+    
+    public BatchReturnItem() {}
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+    
+    public void setReturnDate(LocalDate returnDate) {
+        this.returnDate = returnDate;
+    }
+}
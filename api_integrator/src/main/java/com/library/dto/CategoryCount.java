@@ -0,0 +1,43 @@
+package com.library.dto;
+
+/**
+ * Number of books in one category and how many of them have a copy available.
+ */
+public class CategoryCount {
+
+    private String category;
+    private int total;
+    private int available;
+
+    public CategoryCount() {}
+
+    public CategoryCount(String category, int total, int available) {
+        this.category = category;
+        this.total = total;
+        this.available = available;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+}
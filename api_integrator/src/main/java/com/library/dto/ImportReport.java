@@ -0,0 +1,76 @@
+package com.library.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a catalog import. Only the first rejected records are listed in {@code errors}.
+ */
+public class ImportReport {
+    
+    private long processed;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+    private long authorsCreated;
+    private long elapsedMillis;
+    private List<String> errors = new ArrayList<>();
+    
+    public ImportReport() {}
+    
+    public long getProcessed() {
+        return processed;
+    }
+    
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+    
+    public long getDuplicates() {
+        return duplicates;
+    }
+    
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+    
+    public long getAuthorsCreated() {
+        return authorsCreated;
+    }
+    
+    public void setAuthorsCreated(long authorsCreated) {
+        this.authorsCreated = authorsCreated;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
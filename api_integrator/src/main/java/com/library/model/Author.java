@@ -1,9 +1,12 @@
 package com.library.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -16,11 +19,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "authors", indexes = {
-    @Index(name = "idx_author_name", columnList = "name"),
-    @Index(name = "idx_author_nationality", columnList = "nationality")
-})
+@Table(name = "authors")
 @EntityListeners(AuditingEntityListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,10 +1,15 @@
 package com.library.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,13 +19,12 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "books", indexes = {
-    @Index(name = "idx_book_title", columnList = "title"),
-    @Index(name = "idx_book_isbn", columnList = "isbn"),
-    @Index(name = "idx_book_category", columnList = "category"),
-    @Index(name = "idx_book_author", columnList = "author_id")
-})
+@Table(name = "books")
 @EntityListeners(AuditingEntityListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
+@NaturalIdCache(region = "book-isbn")
 public class Book {
     
     @Id
@@ -32,6 +36,7 @@ public class Book {
     @Column(nullable = false, length = 200)
     private String title;
     
+    @NaturalId(mutable = true)
     @Size(max = 20, message = "ISBN must not exceed 20 characters")
     @Column(unique = true, length = 20)
     private String isbn;
@@ -63,7 +68,8 @@ public class Book {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy so reads that need the author say so with an entity graph (see BookRepository)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     @NotNull(message = "Author is required")
     private Author author;
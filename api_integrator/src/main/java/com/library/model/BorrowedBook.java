@@ -1,5 +1,6 @@
 package com.library.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.annotation.CreatedDate;
@@ -10,25 +11,26 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "borrowed_books", indexes = {
-    @Index(name = "idx_borrowed_book_member", columnList = "member_id"),
-    @Index(name = "idx_borrowed_book_book", columnList = "book_id"),
-    @Index(name = "idx_borrowed_book_status", columnList = "status"),
-    @Index(name = "idx_borrowed_book_dates", columnList = "borrow_date, due_date")
-})
+@Table(name = "borrowed_books")
 @EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = "BorrowedBook.details", attributeNodes = {
+    @NamedAttributeNode("member"),
+    @NamedAttributeNode(value = "book", subgraph = "book")
+}, subgraphs = @NamedSubgraph(name = "book", attributeNodes = @NamedAttributeNode("author")))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class BorrowedBook {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy so reads that need member and book say so with an entity graph (see BorrowedBookRepository)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "member_id", nullable = false)
     @NotNull(message = "Member is required")
     private Member member;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", nullable = false)
     @NotNull(message = "Book is required")
     private Book book;
@@ -1,21 +1,29 @@
 package com.library.repository;
 
 import com.library.model.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+public interface AuthorRepository extends JpaRepository<Author, Long>, JpaSpecificationExecutor<Author> {
     
     Optional<Author> findByName(String name);
     
+    List<Author> findByNameIn(Collection<String> names);
+    
     List<Author> findByNationality(String nationality);
     
     Page<Author> findByNameContainingIgnoreCase(String name, Pageable pageable);
@@ -33,4 +41,12 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     
     @Query("SELECT COUNT(b) FROM Book b WHERE b.author.id = :authorId")
     Long countBooksByAuthor(@Param("authorId") Long authorId);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT a FROM Author a ORDER BY a.id")
+    Stream<Author> streamAll();
 } 
\ No newline at end of file
@@ -1,27 +1,64 @@
 package com.library.repository;
 
 import com.library.model.Book;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+    
+    // Book.author is LAZY: list reads fetch it in the same statement through an entity graph, so a
+    // page costs one query (plus its count) whatever its size
+    @EntityGraph(attributePaths = "author")
+    @Override
+    List<Book> findAll();
+    
+    @EntityGraph(attributePaths = "author")
+    @Override
+    Page<Book> findAll(Pageable pageable);
+    
+    @EntityGraph(attributePaths = "author")
+    @Override
+    Page<Book> findAll(Specification<Book> spec, Pageable pageable);
+    
+    @EntityGraph(attributePaths = "author")
+    @Override
+    List<Book> findAllById(Iterable<Long> ids);
     
     Optional<Book> findByIsbn(String isbn);
     
+    // SELECT ... FOR UPDATE, past the second-level cache
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") Long id);
+    
+    @EntityGraph(attributePaths = "author")
     List<Book> findByCategory(String category);
     
+    @EntityGraph(attributePaths = "author")
     Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
     
+    @EntityGraph(attributePaths = "author")
     Page<Book> findByCategoryIgnoreCase(String category, Pageable pageable);
     
+    @EntityGraph(attributePaths = "author")
     Page<Book> findByAuthorId(Long authorId, Pageable pageable);
     
     @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.author WHERE " +
@@ -31,21 +68,71 @@ public interface BookRepository extends JpaRepository<Book, Long> {
            "LOWER(b.isbn) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<Book> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    @EntityGraph(attributePaths = "author")
     @Query("SELECT b FROM Book b WHERE b.publishingYear BETWEEN :startYear AND :endYear")
     Page<Book> findByPublishingYearBetween(@Param("startYear") Integer startYear, @Param("endYear") Integer endYear, Pageable pageable);
     
+    @EntityGraph(attributePaths = "author")
     @Query("SELECT b FROM Book b WHERE b.availableCopies > 0")
     Page<Book> findAvailableBooks(Pageable pageable);
     
+    @EntityGraph(attributePaths = "author")
     @Query("SELECT b FROM Book b WHERE b.availableCopies = 0")
     Page<Book> findUnavailableBooks(Pageable pageable);
     
+    // Kept in the query cache; entity writes invalidate it, JDBC imports evict the region
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "book-categories")
+    })
     @Query("SELECT DISTINCT b.category FROM Book b ORDER BY b.category")
     List<String> findAllCategories();
     
-    @Query("SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.book.id = :bookId AND bb.status = 'BORROWED'")
+    @Query("SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.book.id = :bookId AND bb.status IN ('BORROWED', 'OVERDUE')")
     Long countCurrentBorrowsByBook(@Param("bookId") Long bookId);
     
     @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author WHERE b.id = :id")
     Optional<Book> findByIdWithAuthor(@Param("id") Long id);
+    
+    @Query("SELECT b.id AS id, b.totalCopies AS totalCopies, b.availableCopies AS availableCopies FROM Book b")
+    List<CopyCounts> findAllCopyCounts();
+    
+    @Query("SELECT b.id AS id, b.totalCopies AS totalCopies, b.availableCopies AS availableCopies FROM Book b WHERE b.id = :id")
+    Optional<CopyCounts> findCopyCountsById(@Param("id") Long id);
+    
+    // Constructor expression rather than an interface projection: the index reads every row, and
+    // projection proxies made the getters the most expensive part of a rebuild
+    @Query("SELECT new com.library.repository.BookRepository$SearchFields(b.id, b.title, b.category, b.isbn, a.id, a.name) " +
+           "FROM Book b JOIN b.author a ORDER BY b.id")
+    List<SearchFields> findAllSearchFields();
+    
+    @Query("SELECT new com.library.repository.BookRepository$CategoryFields(b.id, b.category, b.availableCopies) FROM Book b")
+    List<CategoryFields> findAllCategoryFields();
+    
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT b FROM Book b WHERE b.id IN :ids")
+    Page<Book> findByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
+    
+    @Query("SELECT b.id FROM Book b WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    List<Long> findIdsByTitleContaining(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
+    // Export: rows are fetched from the cursor in batches, not tracked for dirty checking and not
+    // put into the second-level cache, where a full pass would evict the hot entries
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT b FROM Book b JOIN FETCH b.author ORDER BY b.id")
+    Stream<Book> streamAllWithAuthor();
+    
+    record SearchFields(Long id, String title, String category, String isbn, Long authorId, String authorName) {}
+    
+    record CategoryFields(Long id, String category, Integer availableCopies) {}
+    
+    interface CopyCounts {
+        Long getId();
+        Integer getTotalCopies();
+        Integer getAvailableCopies();
+    }
 } 
\ No newline at end of file
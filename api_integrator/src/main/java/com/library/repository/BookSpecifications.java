@@ -0,0 +1,62 @@
+package com.library.repository;
+
+import com.library.model.Book;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Book list filters as {@link Specification}s, matching the derived and {@code @Query} finders of
+ * {@link BookRepository} so cursor-paged listings filter exactly like paged ones. They compose with
+ * {@link Specification#and}, so any combination runs as one query.
+ */
+public final class BookSpecifications {
+    
+    private BookSpecifications() {}
+    
+    public static Specification<Book> hasCategory(String category) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("category")), category.trim().toLowerCase());
+    }
+    
+    public static Specification<Book> hasAuthor(Long authorId) {
+        return (root, query, cb) -> cb.equal(root.get("author").get("id"), authorId);
+    }
+    
+    public static Specification<Book> publishedBetween(Integer startYear, Integer endYear) {
+        return (root, query, cb) -> cb.between(root.get("publishingYear"), startYear, endYear);
+    }
+    
+    public static Specification<Book> publishedFrom(Integer startYear) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("publishingYear"), startYear);
+    }
+    
+    public static Specification<Book> publishedUntil(Integer endYear) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("publishingYear"), endYear);
+    }
+    
+    public static Specification<Book> isAvailable(boolean available) {
+        return (root, query, cb) -> available
+                ? cb.greaterThan(root.get("availableCopies"), 0)
+                : cb.equal(root.get("availableCopies"), 0);
+    }
+    
+    public static Specification<Book> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+    
+    /**
+     * Same match as {@link BookRepository#findBySearchTerm}: title, category, author name or ISBN
+     * containing the term.
+     */
+    public static Specification<Book> matchesSearchTerm(String searchTerm) {
+        return (root, query, cb) -> {
+            String pattern = "%" + searchTerm.trim().toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("title")), pattern),
+                    cb.like(cb.lower(root.get("category")), pattern),
+                    cb.like(cb.lower(root.join("author", JoinType.LEFT).get("name")), pattern),
+                    cb.like(cb.lower(root.get("isbn")), pattern));
+        };
+    }
+}
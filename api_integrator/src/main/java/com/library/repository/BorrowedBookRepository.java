@@ -4,34 +4,61 @@ import com.library.model.BorrowedBook;
 import com.library.model.BorrowedBook.BorrowStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BorrowedBookRepository extends JpaRepository<BorrowedBook, Long> {
+public interface BorrowedBookRepository extends JpaRepository<BorrowedBook, Long>, JpaSpecificationExecutor<BorrowedBook> {
     
+    // member and book (with its author) are LAZY: every read that returns loans fetches them in
+    // the same statement through the BorrowedBook.details graph, so a page costs one query plus
+    // its count whatever its size
+    @EntityGraph("BorrowedBook.details")
+    @Override
+    Page<BorrowedBook> findAll(Pageable pageable);
+    
+    @EntityGraph("BorrowedBook.details")
+    @Override
+    List<BorrowedBook> findAllById(Iterable<Long> ids);
+    
+    @EntityGraph("BorrowedBook.details")
+    @Override
+    Optional<BorrowedBook> findById(Long id);
+    
+    @EntityGraph("BorrowedBook.details")
     Page<BorrowedBook> findByStatus(BorrowStatus status, Pageable pageable);
     
+    @EntityGraph("BorrowedBook.details")
     Page<BorrowedBook> findByMemberId(Long memberId, Pageable pageable);
     
+    @EntityGraph("BorrowedBook.details")
     Page<BorrowedBook> findByBookId(Long bookId, Pageable pageable);
     
+    @EntityGraph("BorrowedBook.details")
     Page<BorrowedBook> findByBorrowDate(LocalDate borrowDate, Pageable pageable);
     
+    @EntityGraph("BorrowedBook.details")
     Page<BorrowedBook> findByBorrowDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
     
+    @EntityGraph("BorrowedBook.details")
     Page<BorrowedBook> findByStatusAndDueDateBefore(BorrowStatus status, LocalDate date, Pageable pageable);
     
+    @EntityGraph("BorrowedBook.details")
     @Query("SELECT bb FROM BorrowedBook bb WHERE " +
            "LOWER(bb.member.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(bb.book.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<BorrowedBook> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    @EntityGraph("BorrowedBook.details")
     @Query("SELECT bb FROM BorrowedBook bb WHERE " +
            "(LOWER(bb.member.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(bb.book.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
@@ -42,15 +69,39 @@ public interface BorrowedBookRepository extends JpaRepository<BorrowedBook, Long
             @Param("endDate") LocalDate endDate,
             Pageable pageable);
     
-    @Query("SELECT bb FROM BorrowedBook bb WHERE bb.status = 'BORROWED' AND bb.dueDate < :date")
-    List<BorrowedBook> findOverdueBooks(@Param("date") LocalDate date);
+    @EntityGraph("BorrowedBook.details")
+    @Query("SELECT bb FROM BorrowedBook bb WHERE bb.member.id IN :memberIds OR bb.book.id IN :bookIds")
+    Page<BorrowedBook> findByMemberIdInOrBookIdIn(
+            @Param("memberIds") Collection<Long> memberIds,
+            @Param("bookIds") Collection<Long> bookIds,
+            Pageable pageable);
+    
+    @EntityGraph("BorrowedBook.details")
+    @Query("SELECT bb FROM BorrowedBook bb WHERE " +
+           "(bb.member.id IN :memberIds OR bb.book.id IN :bookIds) AND " +
+           "bb.borrowDate BETWEEN :startDate AND :endDate")
+    Page<BorrowedBook> findByMemberIdInOrBookIdInAndDateRange(
+            @Param("memberIds") Collection<Long> memberIds,
+            @Param("bookIds") Collection<Long> bookIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            Pageable pageable);
+    
+    // Loans are marked OVERDUE by OverdueService, so overdue reads go through the status index
+    @EntityGraph("BorrowedBook.details")
+    @Query("SELECT bb FROM BorrowedBook bb WHERE bb.status = 'OVERDUE'")
+    List<BorrowedBook> findOverdueBooks();
     
+    @EntityGraph("BorrowedBook.details")
     @Query("SELECT bb FROM BorrowedBook bb WHERE bb.dueDate = :date")
     List<BorrowedBook> findBooksDueOn(@Param("date") LocalDate date);
     
-    @Query("SELECT bb FROM BorrowedBook bb WHERE bb.member.id = :memberId AND bb.status = 'BORROWED'")
+    @EntityGraph("BorrowedBook.details")
+    @Query("SELECT bb FROM BorrowedBook bb WHERE bb.member.id = :memberId AND bb.status IN ('BORROWED', 'OVERDUE')")
     List<BorrowedBook> findActiveBorrowsByMember(@Param("memberId") Long memberId);
     
-    @Query("SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.status = 'BORROWED'")
+    @Query("SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.status IN ('BORROWED', 'OVERDUE')")
     Long countCurrentBorrows();
+    
+    long countByStatus(BorrowStatus status);
 } 
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.library.repository;
+
+import com.library.model.BorrowedBook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC statements for circulation. borrowed_books uses IDENTITY keys, which stops Hibernate from
+ * batching its inserts, so desk bursts are written here as one JDBC batch inside the caller's
+ * transaction. Copy counters are updated here too: a JPQL bulk UPDATE would make Hibernate drop
+ * the whole book region of the second-level cache on every checkout, so callers evict only the
+ * rows they touched instead. The overdue transitions are set-based updates here as well.
+ */
+@Repository
+public class CirculationBatchRepository {
+
+    private static final String DECREMENT_AVAILABLE_COPIES =
+            "UPDATE books SET available_copies = available_copies - 1 WHERE id = ? AND available_copies > 0";
+
+    private static final String ADJUST_AVAILABLE_COPIES =
+            "UPDATE books SET available_copies = available_copies + ? WHERE id = ?";
+
+    private static final String INSERT_BORROWED_BOOK =
+            "INSERT INTO borrowed_books (member_id, book_id, borrow_date, due_date, status, notes) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // The inner SELECT bounds one statement to :limit rows of the (status, due_date) index
+    private static final String MARK_OVERDUE =
+            "UPDATE borrowed_books SET status = 'OVERDUE', updated_at = ? WHERE id IN " +
+            "(SELECT id FROM borrowed_books WHERE status = 'BORROWED' AND due_date < ? LIMIT ?)";
+
+    private static final String MARK_LOAN_OVERDUE =
+            "UPDATE borrowed_books SET status = 'OVERDUE', updated_at = ? WHERE id = ? AND status = 'BORROWED' AND due_date < ?";
+
+    private static final String FIND_LOANS_DUE_BETWEEN =
+            "SELECT id, due_date FROM borrowed_books WHERE status = 'BORROWED' AND due_date >= ? AND due_date < ?";
+
+    /**
+     * Id and due date of an open loan.
+     */
+    public record LoanDue(Long id, LocalDate dueDate) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CirculationBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes one copy of the book, returning the affected row count (0 when sold out).
+     */
+    public int decrementAvailableCopies(Long bookId) {
+        return jdbcTemplate.update(DECREMENT_AVAILABLE_COPIES, bookId);
+    }
+
+    public int adjustAvailableCopies(Long bookId, int delta) {
+        return jdbcTemplate.update(ADJUST_AVAILABLE_COPIES, delta, bookId);
+    }
+
+    /**
+     * Takes one copy of each book, returning the affected row count per position (0 when sold out).
+     */
+    public int[] decrementAvailableCopies(List<Long> bookIds) {
+        List<Object[]> args = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            args.add(new Object[]{bookId});
+        }
+        return jdbcTemplate.batchUpdate(DECREMENT_AVAILABLE_COPIES, args);
+    }
+
+    /**
+     * Marks at most {@code limit} open loans due before {@code today} as overdue and returns how
+     * many were updated; callers repeat until fewer than {@code limit} come back.
+     */
+    public int markOverdue(LocalDate today, int limit) {
+        return jdbcTemplate.update(MARK_OVERDUE, Timestamp.valueOf(LocalDateTime.now()), Date.valueOf(today), limit);
+    }
+
+    /**
+     * Marks the given loans overdue by primary key, skipping any that were returned or are not yet
+     * past due, and returns how many were updated.
+     */
+    public int markOverdue(List<Long> loanIds, LocalDate today) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Date before = Date.valueOf(today);
+        List<Object[]> args = new ArrayList<>(loanIds.size());
+        for (Long loanId : loanIds) {
+            args.add(new Object[]{now, loanId, before});
+        }
+        int updated = 0;
+        for (int count : jdbcTemplate.batchUpdate(MARK_LOAN_OVERDUE, args)) {
+            // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+            updated += Math.max(count, 0);
+        }
+        return updated;
+    }
+
+    /**
+     * Open loans due on or after {@code from} and before {@code until}.
+     */
+    public List<LoanDue> findLoansDueBetween(LocalDate from, LocalDate until) {
+        return jdbcTemplate.query(FIND_LOANS_DUE_BETWEEN,
+                (rs, rowNum) -> new LoanDue(rs.getLong(1), rs.getDate(2).toLocalDate()),
+                Date.valueOf(from), Date.valueOf(until));
+    }
+
+    /**
+     * Inserts the loans and returns their generated ids in the same order.
+     */
+    public List<Long> insertBorrowedBooks(List<BorrowedBook> borrowedBooks) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_BORROWED_BOOK, new String[]{"id"})) {
+                for (BorrowedBook borrowedBook : borrowedBooks) {
+                    ps.setLong(1, borrowedBook.getMember().getId());
+                    ps.setLong(2, borrowedBook.getBook().getId());
+                    ps.setDate(3, Date.valueOf(borrowedBook.getBorrowDate()));
+                    ps.setObject(4, borrowedBook.getDueDate() != null ? Date.valueOf(borrowedBook.getDueDate()) : null, Types.DATE);
+                    ps.setString(5, borrowedBook.getStatus().name());
+                    ps.setString(6, borrowedBook.getNotes());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(borrowedBooks.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+}
@@ -2,21 +2,30 @@ package com.library.repository;
 
 import com.library.model.Member;
 import com.library.model.Member.MembershipStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface MemberRepository extends JpaRepository<Member, Long> {
+public interface MemberRepository extends JpaRepository<Member, Long>, JpaSpecificationExecutor<Member> {
     
     Optional<Member> findByEmail(String email);
     
+    @Query("SELECT m.id FROM Member m WHERE m.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
     List<Member> findByStatus(MembershipStatus status);
     
     Page<Member> findByNameContainingIgnoreCase(String name, Pageable pageable);
@@ -29,19 +38,31 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
            "LOWER(m.phone) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<Member> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    @Query("SELECT m.id FROM Member m WHERE LOWER(m.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    List<Long> findIdsByNameContaining(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
     @Query("SELECT m FROM Member m LEFT JOIN FETCH m.borrowedBooks WHERE m.id = :id")
     Optional<Member> findByIdWithBorrowedBooks(@Param("id") Long id);
     
-    @Query("SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.member.id = :memberId AND bb.status = 'BORROWED'")
+    @Query("SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.member.id = :memberId AND bb.status IN ('BORROWED', 'OVERDUE')")
     Long countCurrentBorrowsByMember(@Param("memberId") Long memberId);
     
-    @Query("SELECT m FROM Member m JOIN m.borrowedBooks bb WHERE bb.status = 'OVERDUE' GROUP BY m")
+    @Query("SELECT m FROM Member m WHERE EXISTS " +
+           "(SELECT 1 FROM BorrowedBook bb WHERE bb.member = m AND bb.status = 'OVERDUE')")
     List<Member> findMembersWithOverdueBooks();
     
     @Query("SELECT m FROM Member m WHERE m.status = 'ACTIVE' AND " +
-           "(SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.member = m AND bb.status = 'BORROWED') = 0")
+           "(SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.member = m AND bb.status IN ('BORROWED', 'OVERDUE')) = 0")
     Page<Member> findActiveMembersWithNoBorrows(Pageable pageable);
     
     @Query("SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.member.id = :memberId")
     Long countTotalBorrowsByMember(@Param("memberId") Long memberId);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT m FROM Member m ORDER BY m.id")
+    Stream<Member> streamAll();
 } 
\ No newline at end of file
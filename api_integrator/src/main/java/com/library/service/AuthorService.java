@@ -1,31 +1,51 @@
 package com.library.service;
 
+import com.library.dto.CursorPage;
 import com.library.model.Author;
+import com.library.model.Book;
 import com.library.repository.AuthorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class AuthorService {
     
     private final AuthorRepository authorRepository;
+    private final BookAvailabilityService bookAvailabilityService;
+    private final BookSearchIndex bookSearchIndex;
+    private final CategoryFacetService categoryFacetService;
+    
+    private static final Set<String> KEYSET_SORTS = Set.of("id", "name");
     
     @Autowired
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository, BookAvailabilityService bookAvailabilityService,
+                         BookSearchIndex bookSearchIndex, CategoryFacetService categoryFacetService) {
         this.authorRepository = authorRepository;
+        this.bookAvailabilityService = bookAvailabilityService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.categoryFacetService = categoryFacetService;
     }
     
     public Page<Author> findAll(Pageable pageable) {
         return authorRepository.findAll(pageable);
     }
     
+    /**
+     * Cursor-paged listing; see {@link KeysetPager}.
+     */
+    public CursorPage<Author> findAllAfter(String after, int size, Sort sort) {
+        return KeysetPager.scroll(authorRepository, Author.class, null, after, size, sort, KEYSET_SORTS);
+    }
+    
     public List<Author> findAll() {
         return authorRepository.findAll();
     }
@@ -59,7 +79,10 @@ public class AuthorService {
     
     public Author save(Author author) {
         validateAuthor(author);
-        return authorRepository.save(author);
+        Author savedAuthor = authorRepository.save(author);
+        // The controller also updates through save, so a changed name must reach the search index
+        bookSearchIndex.updateAuthor(savedAuthor);
+        return savedAuthor;
     }
     
     public Author update(Long id, Author authorDetails) {
@@ -72,11 +95,20 @@ public class AuthorService {
         author.setBirthYear(authorDetails.getBirthYear());
         
         validateAuthor(author);
-        return authorRepository.save(author);
+        Author savedAuthor = authorRepository.save(author);
+        bookSearchIndex.updateAuthor(savedAuthor);
+        return savedAuthor;
     }
     
     public void delete(Long id) {
+        // The author's books go with it (cascade); the delete loads the same collection
+        authorRepository.findById(id).ifPresent(author -> {
+            List<Long> bookIds = author.getBooks().stream().map(Book::getId).toList();
+            bookIds.forEach(bookAvailabilityService::evict);
+            categoryFacetService.removeAll(bookIds);
+        });
         authorRepository.deleteById(id);
+        bookSearchIndex.removeAuthor(id);
     }
     
     public boolean existsById(Long id) {
@@ -0,0 +1,335 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import com.library.repository.BookRepository.CopyCounts;
+import com.library.repository.CirculationBatchRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory availability ledger for books.
+ * <p>
+ * Each book id maps to a single {@link AtomicLong} packing total copies (high 32 bits) and
+ * available copies (low 32 bits), so every change is one CAS on one word. Counters are warmed
+ * from the books table at startup and loaded lazily on a miss. Checkouts are persisted at once
+ * with a conditional UPDATE; returns are persisted write-behind as relative deltas, which keeps
+ * them safe to combine with other writers of available_copies. Both bypass Hibernate, so the book
+ * is evicted from the second-level cache after each write. The ledger is local to one instance.
+ */
+@Service
+public class BookAvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookAvailabilityService.class);
+    private static final long AVAILABLE_MASK = 0xFFFFFFFFL;
+
+    private final BookRepository bookRepository;
+    private final CirculationBatchRepository circulationBatchRepository;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final CategoryFacetService categoryFacetService;
+    private final ConcurrentHashMap<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicInteger> pendingDeltas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookAvailabilityService(BookRepository bookRepository,
+                                   CirculationBatchRepository circulationBatchRepository,
+                                   SecondLevelCacheService secondLevelCacheService,
+                                   CategoryFacetService categoryFacetService) {
+        this.bookRepository = bookRepository;
+        this.circulationBatchRepository = circulationBatchRepository;
+        this.secondLevelCacheService = secondLevelCacheService;
+        this.categoryFacetService = categoryFacetService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<CopyCounts> rows = bookRepository.findAllCopyCounts();
+        for (CopyCounts row : rows) {
+            counters.putIfAbsent(row.getId(), new AtomicLong(pack(row.getTotalCopies(), row.getAvailableCopies())));
+        }
+        logger.info("Availability ledger warmed with {} books", rows.size());
+    }
+
+    public boolean isTracked(Long bookId) {
+        return counter(bookId) != null;
+    }
+
+    public boolean isAvailable(Long bookId) {
+        return getAvailableCopies(bookId) > 0;
+    }
+
+    public int getAvailableCopies(Long bookId) {
+        AtomicLong counter = counter(bookId);
+        return counter == null ? 0 : available(counter.get());
+    }
+
+    /**
+     * Takes one copy if any is available. A sold-out title is rejected from memory; otherwise the
+     * checkout is written with a single conditional UPDATE, so concurrent checkouts can never drive
+     * the row below zero. Inside a transaction the in-memory copy is handed back on rollback.
+     */
+    public boolean tryReserve(Long bookId) {
+        if (!adjust(bookId, -1, false)) {
+            return false;
+        }
+        
+        // Deltas still waiting for write-behind must reach the row before it is checked
+        flush(bookId);
+        int updated = circulationBatchRepository.decrementAvailableCopies(bookId);
+        secondLevelCacheService.evictBook(bookId);
+        if (updated == 0) {
+            // The row disagrees with memory (e.g. changed by another instance); reload on next access
+            counters.remove(bookId);
+            return false;
+        }
+        
+        onRollback(() -> adjust(bookId, 1, false));
+        return true;
+    }
+
+    /**
+     * Batch form of {@link #tryReserve(Long)}: titles are reserved in memory first, then every
+     * surviving checkout is written in one JDBC batch of conditional UPDATEs. A book id may appear
+     * more than once. Returns whether each position got a copy.
+     */
+    public boolean[] tryReserveAll(List<Long> bookIds) {
+        boolean[] reserved = new boolean[bookIds.size()];
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < bookIds.size(); i++) {
+            if (adjust(bookIds.get(i), -1, false)) {
+                reserved[i] = true;
+                positions.add(i);
+            }
+        }
+        if (positions.isEmpty()) {
+            return reserved;
+        }
+
+        List<Long> reservedIds = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            reservedIds.add(bookIds.get(position));
+        }
+        new HashSet<>(reservedIds).forEach(this::flush);
+
+        int[] updated = circulationBatchRepository.decrementAvailableCopies(reservedIds);
+        secondLevelCacheService.evictBooks(new HashSet<>(reservedIds));
+        for (int i = 0; i < positions.size(); i++) {
+            Long bookId = reservedIds.get(i);
+            // Drivers may report SUCCESS_NO_INFO (-2) instead of a row count; only 0 means sold out
+            if (updated[i] == 0) {
+                reserved[positions.get(i)] = false;
+                counters.remove(bookId);
+            } else {
+                onRollback(() -> adjust(bookId, 1, false));
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * Hands one copy back, never exceeding the total number of copies.
+     */
+    public boolean release(Long bookId) {
+        if (!adjust(bookId, 1, true)) {
+            return false;
+        }
+        onRollback(() -> adjust(bookId, -1, true));
+        return true;
+    }
+
+    /**
+     * Records the saved copy counts of a book once its transaction commits. Returns queued since
+     * the save are still written on top of the row, so the counter includes them too.
+     */
+    public void register(Book book) {
+        Long bookId = book.getId();
+        if (bookId == null) {
+            return;
+        }
+        int total = book.getTotalCopies() != null ? book.getTotalCopies() : 0;
+        int available = book.getAvailableCopies() != null ? book.getAvailableCopies() : 0;
+        afterCommit(() -> {
+            AtomicInteger pending = pendingDeltas.get(bookId);
+            int queued = pending != null ? pending.get() : 0;
+            counters.put(bookId, new AtomicLong(pack(total, Math.max(0, Math.min(total, available + queued)))));
+        });
+    }
+
+    /**
+     * Applies a committed change of a book's copy counts relative to the counter, so checkouts and
+     * returns that raced the change keep their effect, and queued returns stay queued. The caller
+     * must hold the row lock while computing the change.
+     */
+    public void copiesChanged(Long bookId, int totalDelta, int availableDelta) {
+        if (totalDelta == 0 && availableDelta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            AtomicLong counter = counters.get(bookId);
+            if (counter == null) {
+                return;
+            }
+            long current;
+            int next;
+            int nextTotal;
+            do {
+                current = counter.get();
+                next = available(current) + availableDelta;
+                nextTotal = total(current) + totalDelta;
+                if (next < 0 || next > nextTotal) {
+                    // Out of step with the row; reload on next access
+                    counters.remove(bookId, counter);
+                    return;
+                }
+            } while (!counter.compareAndSet(current, pack(nextTotal, next)));
+
+            if ((available(current) > 0) != (next > 0)) {
+                categoryFacetService.availabilityChanged(bookId, () -> available(counter.get()) > 0);
+            }
+        });
+    }
+
+    /**
+     * Stops tracking a deleted book once its transaction commits, dropping any queued returns.
+     */
+    public void evict(Long bookId) {
+        afterCommit(() -> {
+            pendingDeltas.remove(bookId);
+            counters.remove(bookId);
+        });
+    }
+
+    /**
+     * Writes one book's pending delta through immediately, e.g. before re-reading the row. Inside
+     * a transaction the write is part of it, and the delta is queued again if it rolls back.
+     */
+    public void flush(Long bookId) {
+        AtomicInteger pending = pendingDeltas.get(bookId);
+        if (pending != null) {
+            persist(bookId, pending);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.availability.flush-interval-ms:500}")
+    @PreDestroy
+    public void flush() {
+        for (Map.Entry<Long, AtomicInteger> entry : pendingDeltas.entrySet()) {
+            persist(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void persist(Long bookId, AtomicInteger pending) {
+        int delta = pending.getAndSet(0);
+        if (delta != 0) {
+            try {
+                circulationBatchRepository.adjustAvailableCopies(bookId, delta);
+                secondLevelCacheService.evictBook(bookId);
+            } catch (RuntimeException e) {
+                logger.error("Failed to persist availability delta {} for book {}, will retry", delta, bookId, e);
+                markPending(bookId, delta);
+                return;
+            }
+            onRollback(() -> markPending(bookId, delta));
+        }
+        pendingDeltas.computeIfPresent(bookId, (id, value) -> value.get() == 0 ? null : value);
+    }
+
+    private boolean adjust(Long bookId, int delta, boolean writeBehind) {
+        AtomicLong counter = counter(bookId);
+        if (counter == null) {
+            return false;
+        }
+
+        long current;
+        int next;
+        do {
+            current = counter.get();
+            next = available(current) + delta;
+            if (next < 0 || next > total(current)) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current + delta));
+        
+        if ((available(current) > 0) != (next > 0)) {
+            categoryFacetService.availabilityChanged(bookId, () -> available(counter.get()) > 0);
+        }
+
+        if (writeBehind) {
+            markPending(bookId, delta);
+        }
+        return true;
+    }
+
+    private AtomicLong counter(Long bookId) {
+        if (bookId == null) {
+            return null;
+        }
+        return counters.computeIfAbsent(bookId, id -> bookRepository.findCopyCountsById(id)
+                .map(row -> new AtomicLong(pack(row.getTotalCopies(), row.getAvailableCopies())))
+                .orElse(null));
+    }
+
+    private void markPending(Long bookId, int delta) {
+        pendingDeltas.compute(bookId, (id, value) -> {
+            AtomicInteger pending = value != null ? value : new AtomicInteger();
+            pending.addAndGet(delta);
+            return pending;
+        });
+    }
+
+    private void onRollback(Runnable compensation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        compensation.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long pack(Integer totalCopies, Integer availableCopies) {
+        long total = totalCopies != null ? totalCopies : 0;
+        long available = availableCopies != null ? availableCopies : 0;
+        return (total << 32) | (available & AVAILABLE_MASK);
+    }
+
+    private static int total(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int available(long packed) {
+        return (int) (packed & AVAILABLE_MASK);
+    }
+}
@@ -0,0 +1,540 @@
+package com.library.service;
+
+import com.library.model.Author;
+import com.library.model.Book;
+import com.library.repository.AuthorRepository;
+import com.library.repository.BookRepository;
+import com.library.repository.BookRepository.SearchFields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over book title, author name, category and ISBN.
+ * <p>
+ * Terms live in a sorted map, so a query token matches whole terms, terms it is a prefix of, and
+ * (when it has no exact match) terms within one or two edits. Matches are scored by field weight,
+ * match quality and term rarity; every query token must match. Built at startup and kept in step
+ * with book and author writes after they commit. Like the availability ledger it is local to one
+ * instance.
+ */
+@Service
+public class BookSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final float ISBN_WEIGHT = 4.0f;
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float AUTHOR_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+
+    private static final float PREFIX_QUALITY = 0.6f;
+    private static final float ONE_EDIT_QUALITY = 0.5f;
+    private static final float TWO_EDIT_QUALITY = 0.3f;
+
+    /**
+     * Indexed fields of one book and the terms they produced (needed to unindex it).
+     */
+    private static final class Document {
+        final String title;
+        final String category;
+        final String isbn;
+        final Long authorId;
+        final String[] terms;
+
+        Document(String title, String category, String isbn, Long authorId, String[] terms) {
+            this.title = title;
+            this.category = category;
+            this.isbn = isbn;
+            this.authorId = authorId;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * Immutable posting list: book ids in ascending order with the field weight of the term in each.
+     * Primitive arrays keep a million-book index to a few bytes per posting; writes copy the list.
+     */
+    private static final class Postings {
+        final long[] ids;
+        final float[] weights;
+
+        Postings(long[] ids, float[] weights) {
+            this.ids = ids;
+            this.weights = weights;
+        }
+
+        Postings with(long id, float weight) {
+            int i = Arrays.binarySearch(ids, id);
+            if (i >= 0) {
+                float[] updated = weights.clone();
+                updated[i] = weight;
+                return new Postings(ids, updated);
+            }
+            int at = -i - 1;
+            long[] newIds = new long[ids.length + 1];
+            float[] newWeights = new float[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, at);
+            System.arraycopy(weights, 0, newWeights, 0, at);
+            newIds[at] = id;
+            newWeights[at] = weight;
+            System.arraycopy(ids, at, newIds, at + 1, ids.length - at);
+            System.arraycopy(weights, at, newWeights, at + 1, ids.length - at);
+            return new Postings(newIds, newWeights);
+        }
+
+        /**
+         * Returns the list without {@code id}, or {@code null} when nothing is left.
+         */
+        Postings without(long id) {
+            int i = Arrays.binarySearch(ids, id);
+            if (i < 0) {
+                return this;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] newIds = new long[ids.length - 1];
+            float[] newWeights = new float[ids.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, i);
+            System.arraycopy(weights, 0, newWeights, 0, i);
+            System.arraycopy(ids, i + 1, newIds, i, ids.length - i - 1);
+            System.arraycopy(weights, i + 1, newWeights, i, ids.length - i - 1);
+            return new Postings(newIds, newWeights);
+        }
+    }
+
+    /**
+     * Growable posting list used while rebuilding; rows arrive in id order, so ids stay sorted.
+     */
+    private static final class PostingsBuilder {
+        long[] ids = new long[2];
+        float[] weights = new float[2];
+        int size;
+
+        void add(long id, float weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            weights[size] = weight;
+            size++;
+        }
+
+        Postings build() {
+            return new Postings(Arrays.copyOf(ids, size), Arrays.copyOf(weights, size));
+        }
+    }
+
+    /**
+     * All index state; replaced wholesale on rebuild so searches never see a half-built index.
+     */
+    private static final class Segment {
+        final ConcurrentSkipListMap<String, Postings> postings;
+        final ConcurrentHashMap<Long, Document> documents = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, String> authorNames = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, Set<Long>> booksByAuthor = new ConcurrentHashMap<>();
+
+        Segment(SortedMap<String, Postings> postings) {
+            this.postings = new ConcurrentSkipListMap<>(postings);
+        }
+    }
+
+    private static final Comparator<Map.Entry<Long, Float>> RANKING =
+            Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    // Serializes writers; a lock rather than synchronized, as they may load rows through JDBC
+    // and a virtual thread would stay pinned to its carrier for the whole query
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Segment segment = new Segment(new TreeMap<>());
+    private volatile boolean ready;
+
+    @Autowired
+    public BookSearchIndex(BookRepository bookRepository, AuthorRepository authorRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the whole index from the database, e.g. after a bulk import.
+     */
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            long start = System.nanoTime();
+            List<SearchFields> rows = bookRepository.findAllSearchFields();
+            Map<String, PostingsBuilder> builders = new HashMap<>();
+            List<Document> documents = new ArrayList<>(rows.size());
+            Map<Long, String> authorNames = new HashMap<>();
+            for (SearchFields row : rows) {
+                if (row.authorId() != null && row.authorName() != null) {
+                    authorNames.put(row.authorId(), row.authorName());
+                }
+                Map<String, Float> terms = terms(row.title(), row.authorName(), row.category(), row.isbn());
+                for (Map.Entry<String, Float> term : terms.entrySet()) {
+                    builders.computeIfAbsent(term.getKey(), key -> new PostingsBuilder()).add(row.id(), term.getValue());
+                }
+                documents.add(new Document(row.title(), row.category(), row.isbn(), row.authorId(),
+                        terms.keySet().toArray(new String[0])));
+            }
+
+            TreeMap<String, Postings> postings = new TreeMap<>();
+            builders.forEach((term, builder) -> postings.put(term, builder.build()));
+            Segment fresh = new Segment(postings);
+            fresh.authorNames.putAll(authorNames);
+            for (int i = 0; i < rows.size(); i++) {
+                Long bookId = rows.get(i).id();
+                Document document = documents.get(i);
+                fresh.documents.put(bookId, document);
+                if (document.authorId != null) {
+                    fresh.booksByAuthor.computeIfAbsent(document.authorId, key -> ConcurrentHashMap.newKeySet()).add(bookId);
+                }
+            }
+
+            segment = fresh;
+            ready = true;
+            logger.info("Search index built with {} books and {} terms in {} ms",
+                    fresh.documents.size(), fresh.postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indexes a saved book once the surrounding transaction commits.
+     */
+    public void index(Book book) {
+        if (book.getId() == null) {
+            return;
+        }
+        Long bookId = book.getId();
+        String title = book.getTitle();
+        String category = book.getCategory();
+        String isbn = book.getIsbn();
+        Author author = book.getAuthor();
+        Long authorId = author != null ? author.getId() : null;
+        String authorName = author != null ? author.getName() : null;
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                if (authorId != null && authorName != null) {
+                    segment.authorNames.put(authorId, authorName);
+                }
+                put(segment, bookId, title, category, isbn, authorId);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    public void remove(Long bookId) {
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                unindex(segment, bookId);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Re-indexes every book of an author whose name changed.
+     */
+    public void updateAuthor(Author author) {
+        Long authorId = author.getId();
+        String name = author.getName();
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                Segment current = segment;
+                current.authorNames.put(authorId, name);
+                for (Long bookId : new ArrayList<>(current.booksByAuthor.getOrDefault(authorId, Set.of()))) {
+                    Document document = current.documents.get(bookId);
+                    if (document != null) {
+                        put(current, bookId, document.title, document.category, document.isbn, authorId);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Drops an author and, as the database cascade does, the author's books.
+     */
+    public void removeAuthor(Long authorId) {
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                Segment current = segment;
+                for (Long bookId : new ArrayList<>(current.booksByAuthor.getOrDefault(authorId, Set.of()))) {
+                    unindex(current, bookId);
+                }
+                current.authorNames.remove(authorId);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns the ids of matching books, best match first, at most {@code limit} of them.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Segment current = segment;
+        int documentCount = Math.max(current.documents.size(), 1);
+        Map<Long, Float> scores = null;
+        for (String token : new LinkedHashSet<>(tokens)) {
+            Map<Long, Float> matches = match(current, token, documentCount);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                // Every token must match: keep only documents seen for all tokens so far
+                Map<Long, Float> combined = new HashMap<>();
+                for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                    Float score = matches.get(entry.getKey());
+                    if (score != null) {
+                        combined.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Keep the best `limit` matches in a bounded heap instead of sorting every match
+        PriorityQueue<Map.Entry<Long, Float>> best = new PriorityQueue<>(RANKING.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (RANKING.compare(entry, best.peek()) < 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Float> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    private Map<Long, Float> match(Segment current, String token, int documentCount) {
+        Map<Long, Float> scores = new HashMap<>();
+        Postings exact = current.postings.get(token);
+        if (exact != null) {
+            collect(scores, exact, 1.0f, documentCount);
+        }
+
+        for (Map.Entry<String, Postings> entry
+                : current.postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+            collect(scores, entry.getValue(), PREFIX_QUALITY, documentCount);
+        }
+
+        if (exact == null && token.length() >= 4) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            // Typos in the first letter are rare, so only terms sharing it are compared
+            String first = token.substring(0, 1);
+            for (Map.Entry<String, Postings> entry
+                    : current.postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                String term = entry.getKey();
+                if (Math.abs(term.length() - token.length()) > maxEdits || term.startsWith(token)) {
+                    continue;
+                }
+                int distance = editDistance(token, term, maxEdits);
+                if (distance <= maxEdits) {
+                    collect(scores, entry.getValue(), distance == 1 ? ONE_EDIT_QUALITY : TWO_EDIT_QUALITY, documentCount);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void collect(Map<Long, Float> scores, Postings postings, float quality, int documentCount) {
+        float idf = (float) Math.log(1.0 + (double) documentCount / postings.ids.length);
+        for (int i = 0; i < postings.ids.length; i++) {
+            scores.merge(postings.ids[i], postings.weights[i] * quality * idf, Math::max);
+        }
+    }
+
+    private void put(Segment target, Long bookId, String title, String category, String isbn, Long authorId) {
+        unindex(target, bookId);
+
+        String authorName = authorId != null ? target.authorNames.get(authorId) : null;
+        if (authorId != null && authorName == null) {
+            authorName = authorRepository.findById(authorId).map(Author::getName).orElse(null);
+            if (authorName != null) {
+                target.authorNames.put(authorId, authorName);
+            }
+        }
+
+        Map<String, Float> terms = terms(title, authorName, category, isbn);
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            target.postings.compute(term.getKey(), (key, postings) -> postings == null
+                    ? new Postings(new long[]{bookId}, new float[]{term.getValue()})
+                    : postings.with(bookId, term.getValue()));
+        }
+        target.documents.put(bookId, new Document(title, category, isbn, authorId, terms.keySet().toArray(new String[0])));
+        if (authorId != null) {
+            target.booksByAuthor.computeIfAbsent(authorId, key -> ConcurrentHashMap.newKeySet()).add(bookId);
+        }
+    }
+
+    private static void unindex(Segment target, Long bookId) {
+        Document previous = target.documents.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms) {
+            target.postings.computeIfPresent(term, (key, postings) -> postings.without(bookId));
+        }
+        if (previous.authorId != null) {
+            target.booksByAuthor.computeIfPresent(previous.authorId, (key, books) -> {
+                books.remove(bookId);
+                return books.isEmpty() ? null : books;
+            });
+        }
+    }
+
+    private static Map<String, Float> terms(String title, String authorName, String category, String isbn) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, authorName, AUTHOR_WEIGHT);
+        addTerms(terms, category, CATEGORY_WEIGHT);
+        addTerms(terms, isbn, ISBN_WEIGHT);
+        if (isbn != null) {
+            // Also index the ISBN without separators so "9780743273565" finds "978-0-7432-7356-5"
+            String compact = String.join("", tokenize(isbn));
+            if (!compact.isEmpty()) {
+                terms.merge(compact, ISBN_WEIGHT, Math::max);
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = isAscii(text) ? text : DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Optimal string alignment distance, giving up once it must exceed {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
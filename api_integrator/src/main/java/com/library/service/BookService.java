@@ -1,31 +1,115 @@
 package com.library.service;
 
+import com.library.dto.CategoryCount;
+import com.library.dto.CursorPage;
 import com.library.model.Book;
 import com.library.repository.BookRepository;
+import com.library.repository.BookSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class BookService {
     
     private final BookRepository bookRepository;
+    private final BookAvailabilityService bookAvailabilityService;
+    private final BookSearchIndex bookSearchIndex;
+    private final CategoryFacetService categoryFacetService;
+    private final EntityManager entityManager;
+    
+    // Non-null columns only: a NULL key cannot be compared by the keyset predicate
+    private static final Set<String> KEYSET_SORTS = Set.of("id", "title", "category", "publishingYear");
+    
+    @Value("${library.search.max-results:1000}")
+    private int maxSearchResults;
     
     @Autowired
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, BookAvailabilityService bookAvailabilityService,
+                       BookSearchIndex bookSearchIndex, CategoryFacetService categoryFacetService,
+                       EntityManager entityManager) {
         this.bookRepository = bookRepository;
+        this.bookAvailabilityService = bookAvailabilityService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.categoryFacetService = categoryFacetService;
+        this.entityManager = entityManager;
     }
     
     public Page<Book> findAll(Pageable pageable) {
         return bookRepository.findAll(pageable);
     }
     
+    /**
+     * One page of the books matching {@code filter} (all books when null), counted and fetched
+     * with the filters combined in SQL.
+     */
+    public Page<Book> findAll(Specification<Book> filter, Pageable pageable) {
+        if (filter == null) {
+            return bookRepository.findAll(pageable);
+        }
+        return bookRepository.findAll(filter, pageable);
+    }
+    
+    /**
+     * Combines the list filters of {@code GET /books} into one specification; null arguments are
+     * skipped and the result is null when there is nothing to filter on. The category is compared
+     * ignoring case against the column itself rather than the in-memory facets, which can lag
+     * behind it; on PostgreSQL the {@code (lower(category), available_copies, publishing_year)}
+     * index serves the combined filters.
+     */
+    public Specification<Book> buildFilter(String category, Long authorId, Integer startYear, Integer endYear,
+                                           Boolean available) {
+        List<Specification<Book>> filters = new ArrayList<>();
+        if (category != null && !category.trim().isEmpty()) {
+            filters.add(BookSpecifications.hasCategory(category));
+        }
+        if (available != null) {
+            filters.add(BookSpecifications.isAvailable(available));
+        }
+        if (startYear != null && endYear != null) {
+            filters.add(BookSpecifications.publishedBetween(startYear, endYear));
+        } else if (startYear != null) {
+            filters.add(BookSpecifications.publishedFrom(startYear));
+        } else if (endYear != null) {
+            filters.add(BookSpecifications.publishedUntil(endYear));
+        }
+        if (authorId != null) {
+            filters.add(BookSpecifications.hasAuthor(authorId));
+        }
+        return filters.isEmpty() ? null : Specification.allOf(filters);
+    }
+    
+    /**
+     * Cursor-paged listing; see {@link KeysetPager}. {@code filter} may be null.
+     */
+    public CursorPage<Book> findAllAfter(String after, int size, Sort sort, Specification<Book> filter) {
+        return KeysetPager.scroll(bookRepository, Book.class, filter, after, size, sort, KEYSET_SORTS, "author");
+    }
+    
     public List<Book> findAll() {
         return bookRepository.findAll();
     }
@@ -34,19 +118,79 @@ public class BookService {
         return bookRepository.findById(id);
     }
     
+    public Book getReference(Long id) {
+        return bookRepository.getReferenceById(id);
+    }
+    
+    public List<Long> findIdsByTitleContaining(String searchTerm, Pageable pageable) {
+        return bookRepository.findIdsByTitleContaining(searchTerm, pageable);
+    }
+    
     public Optional<Book> findByIdWithAuthor(Long id) {
         return bookRepository.findById(id);
     }
     
+    /**
+     * Resolved through the natural-id cache, so repeated lookups skip the database.
+     */
     public Optional<Book> findByIsbn(String isbn) {
-        return bookRepository.findByIsbn(isbn);
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Book.class).loadOptional(isbn);
     }
     
+    /**
+     * Searches title, author, category and ISBN through the search index, best match first unless
+     * the pageable sorts by a book field. Only the best {@code library.search.max-results} matches
+     * are paged. Falls back to the LIKE query until the index has been built.
+     */
     public Page<Book> findBySearchTerm(String searchTerm, Pageable pageable) {
+        return findBySearchTerm(searchTerm, null, pageable);
+    }
+    
+    /**
+     * {@link #findBySearchTerm(String, Pageable)} limited to the books matching {@code filter}
+     * (see {@link #buildFilter}). The ranked matches are narrowed with one id query, so pages and
+     * totals are exact.
+     */
+    public Page<Book> findBySearchTerm(String searchTerm, Specification<Book> filter, Pageable pageable) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return bookRepository.findAll(pageable);
+            return findAll(filter, isRelevanceOrder(pageable) ? withoutSort(pageable) : pageable);
+        }
+        if (!bookSearchIndex.isReady()) {
+            Pageable unranked = isRelevanceOrder(pageable) ? withoutSort(pageable) : pageable;
+            if (filter == null) {
+                return bookRepository.findBySearchTerm(searchTerm.trim(), unranked);
+            }
+            return bookRepository.findAll(BookSpecifications.matchesSearchTerm(searchTerm).and(filter), unranked);
         }
-        return bookRepository.findBySearchTerm(searchTerm.trim(), pageable);
+        
+        List<Long> ranked = bookSearchIndex.search(searchTerm, maxSearchResults);
+        if (ranked.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (!isRelevanceOrder(pageable)) {
+            if (filter == null) {
+                return bookRepository.findByIdIn(ranked, pageable);
+            }
+            return bookRepository.findAll(BookSpecifications.idIn(ranked).and(filter), pageable);
+        }
+        if (filter != null) {
+            Set<Long> matching = findMatchingIds(ranked, filter);
+            ranked = ranked.stream().filter(matching::contains).toList();
+            if (ranked.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+        
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<Long> pageIds = ranked.subList(from, to);
+        Map<Long, Book> books = bookRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<Book> content = pageIds.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ranked.size());
     }
     
     public Page<Book> findByCategory(String category, Pageable pageable) {
@@ -72,8 +216,18 @@ public class BookService {
         return bookRepository.findUnavailableBooks(pageable);
     }
     
+    /**
+     * Served from the category facets once they are loaded.
+     */
     public List<String> getAllCategories() {
-        return bookRepository.findAllCategories();
+        if (!categoryFacetService.isReady()) {
+            return bookRepository.findAllCategories();
+        }
+        return categoryFacetService.getCategories();
+    }
+    
+    public List<CategoryCount> getCategoryCounts() {
+        return categoryFacetService.getCounts();
     }
     
     public Book save(Book book) {
@@ -87,12 +241,25 @@ public class BookService {
             book.setAvailableCopies(book.getTotalCopies());
         }
         
-        return bookRepository.save(book);
+        if (book.getId() != null) {
+            // The saved counts replace the row's, including returns queued before this save
+            bookAvailabilityService.flush(book.getId());
+        }
+        Book savedBook = bookRepository.save(book);
+        bookAvailabilityService.register(savedBook);
+        bookSearchIndex.index(savedBook);
+        categoryFacetService.put(savedBook);
+        return savedBook;
     }
     
     public Book update(Long id, Book bookDetails) {
-        Book book = bookRepository.findById(id)
+        // Queued returns must reach the row before availability is recomputed from it; the lock
+        // holds off other writers of the copy counts until this transaction ends
+        bookAvailabilityService.flush(id);
+        Book book = bookRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Book not found with id: " + id));
+        int previousTotal = Objects.requireNonNullElse(book.getTotalCopies(), 0);
+        int previousAvailable = Objects.requireNonNullElse(book.getAvailableCopies(), 0);
         
         book.setTitle(bookDetails.getTitle());
         book.setIsbn(bookDetails.getIsbn());
@@ -109,11 +276,20 @@ public class BookService {
         }
         
         validateBook(book);
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        bookAvailabilityService.copiesChanged(id,
+                Objects.requireNonNullElse(savedBook.getTotalCopies(), 0) - previousTotal,
+                Objects.requireNonNullElse(savedBook.getAvailableCopies(), 0) - previousAvailable);
+        bookSearchIndex.index(savedBook);
+        categoryFacetService.put(savedBook);
+        return savedBook;
     }
     
     public void delete(Long id) {
         bookRepository.deleteById(id);
+        bookAvailabilityService.evict(id);
+        bookSearchIndex.remove(id);
+        categoryFacetService.remove(id);
     }
     
     public boolean existsById(Long id) {
@@ -121,45 +297,57 @@ public class BookService {
     }
     
     public boolean isAvailable(Long bookId) {
-        return bookRepository.findById(bookId)
-                .map(book -> book.getAvailableCopies() > 0)
-                .orElse(false);
+        return bookAvailabilityService.isAvailable(bookId);
+    }
+    
+    public Optional<Boolean> findAvailability(Long bookId) {
+        if (!bookAvailabilityService.isTracked(bookId)) {
+            return Optional.empty();
+        }
+        return Optional.of(bookAvailabilityService.isAvailable(bookId));
     }
     
     public boolean borrowBook(Long bookId) {
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isEmpty()) {
+        if (!bookAvailabilityService.isTracked(bookId)) {
             throw new RuntimeException("Book not found with id: " + bookId);
         }
         
-        Book book = bookOpt.get();
-        if (book.getAvailableCopies() <= 0) {
-            return false; // No available copies
-        }
-        
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        bookRepository.save(book);
-        return true;
+        return bookAvailabilityService.tryReserve(bookId);
     }
     
     public void returnBook(Long bookId) {
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isEmpty()) {
+        if (!bookAvailabilityService.isTracked(bookId)) {
             throw new RuntimeException("Book not found with id: " + bookId);
         }
         
-        Book book = bookOpt.get();
-        if (book.getAvailableCopies() < book.getTotalCopies()) {
-            book.setAvailableCopies(book.getAvailableCopies() + 1);
-            bookRepository.save(book);
-        }
+        bookAvailabilityService.release(bookId);
     }
     
     public Long countCurrentBorrowsByBook(Long bookId) {
         return bookRepository.countCurrentBorrowsByBook(bookId);
     }
     
-    private void validateBook(Book book) {
+    /**
+     * Ids among {@code ids} of the books matching {@code filter}, selected without loading the books.
+     */
+    private Set<Long> findMatchingIds(Collection<Long> ids, Specification<Book> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        Specification<Book> spec = BookSpecifications.idIn(ids).and(filter);
+        query.select(root.get("id")).where(spec.toPredicate(root, query, cb));
+        return new HashSet<>(entityManager.createQuery(query).getResultList());
+    }
+    
+    private static boolean isRelevanceOrder(Pageable pageable) {
+        return pageable.getSort().isUnsorted() || pageable.getSort().getOrderFor("relevance") != null;
+    }
+    
+    private static Pageable withoutSort(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+    
+    void validateBook(Book book) {
         if (book.getTitle() == null || book.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("Book title is required");
         }
@@ -1,19 +1,33 @@
 package com.library.service;
 
-import com.library.model.Book;
+import com.library.dto.BatchItemResult;
+import com.library.dto.BatchResult;
+import com.library.dto.BatchReturnItem;
+import com.library.dto.CursorPage;
 import com.library.model.BorrowedBook;
 import com.library.model.BorrowedBook.BorrowStatus;
-import com.library.model.Member;
 import com.library.repository.BorrowedBookRepository;
+import com.library.repository.CirculationBatchRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -22,20 +36,45 @@ public class BorrowedBookService {
     private final BorrowedBookRepository borrowedBookRepository;
     private final BookService bookService;
     private final MemberService memberService;
+    private final BookAvailabilityService bookAvailabilityService;
+    private final CirculationBatchRepository circulationBatchRepository;
+    private final OverdueService overdueService;
+    
+    private static final Set<String> KEYSET_SORTS = Set.of("id", "borrowDate");
+    
+    @Value("${library.batch.max-items:100}")
+    private int maxBatchItems;
+    
+    @Value("${library.search.max-prefilter-ids:500}")
+    private int maxPrefilterIds;
     
     @Autowired
     public BorrowedBookService(BorrowedBookRepository borrowedBookRepository,
                               BookService bookService,
-                              MemberService memberService) {
+                              MemberService memberService,
+                              BookAvailabilityService bookAvailabilityService,
+                              CirculationBatchRepository circulationBatchRepository,
+                              OverdueService overdueService) {
         this.borrowedBookRepository = borrowedBookRepository;
         this.bookService = bookService;
         this.memberService = memberService;
+        this.bookAvailabilityService = bookAvailabilityService;
+        this.circulationBatchRepository = circulationBatchRepository;
+        this.overdueService = overdueService;
     }
     
     public Page<BorrowedBook> findAll(Pageable pageable) {
         return borrowedBookRepository.findAll(pageable);
     }
     
+    /**
+     * Cursor-paged listing of the loan history; see {@link KeysetPager}.
+     */
+    public CursorPage<BorrowedBook> findAllAfter(String after, int size, Sort sort) {
+        return KeysetPager.scroll(borrowedBookRepository, BorrowedBook.class, null, after, size, sort, KEYSET_SORTS,
+                "member", "book", "book.author");
+    }
+    
     public Optional<BorrowedBook> findById(Long id) {
         return borrowedBookRepository.findById(id);
     }
@@ -57,14 +96,14 @@ public class BorrowedBookService {
     }
     
     public Page<BorrowedBook> findOverdueBooks(Pageable pageable) {
-        return borrowedBookRepository.findByStatusAndDueDateBefore(BorrowStatus.BORROWED, LocalDate.now(), pageable);
+        return borrowedBookRepository.findByStatus(BorrowStatus.OVERDUE, pageable);
     }
     
     public Page<BorrowedBook> findBySearchTerm(String searchTerm, Pageable pageable) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return borrowedBookRepository.findAll(pageable);
         }
-        return borrowedBookRepository.findBySearchTerm(searchTerm.trim(), pageable);
+        return searchLoans(searchTerm.trim(), null, null, pageable);
     }
     
     public Page<BorrowedBook> findByBorrowDate(LocalDate borrowDate, Pageable pageable) {
@@ -75,11 +114,36 @@ public class BorrowedBookService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return borrowedBookRepository.findByBorrowDateBetween(startDate, endDate, pageable);
         }
-        return borrowedBookRepository.findBySearchTermAndDateRange(searchTerm.trim(), startDate, endDate, pageable);
+        return searchLoans(searchTerm.trim(), startDate, endDate, pageable);
+    }
+    
+    /**
+     * Resolves the matching members and books first, each from one table where the trigram index
+     * applies, then reads the loans through the member_id and book_id indexes instead of scanning
+     * every loan with a LIKE across the joins. A term that matches more than
+     * {@code library.search.max-prefilter-ids} members or titles is not selective enough for that,
+     * so it uses the joined query.
+     */
+    private Page<BorrowedBook> searchLoans(String searchTerm, LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        Pageable limit = PageRequest.of(0, maxPrefilterIds + 1);
+        List<Long> memberIds = memberService.findIdsByNameContaining(searchTerm, limit);
+        List<Long> bookIds = bookService.findIdsByTitleContaining(searchTerm, limit);
+        
+        if (memberIds.size() > maxPrefilterIds || bookIds.size() > maxPrefilterIds) {
+            return startDate == null
+                    ? borrowedBookRepository.findBySearchTerm(searchTerm, pageable)
+                    : borrowedBookRepository.findBySearchTermAndDateRange(searchTerm, startDate, endDate, pageable);
+        }
+        if (memberIds.isEmpty() && bookIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return startDate == null
+                ? borrowedBookRepository.findByMemberIdInOrBookIdIn(memberIds, bookIds, pageable)
+                : borrowedBookRepository.findByMemberIdInOrBookIdInAndDateRange(memberIds, bookIds, startDate, endDate, pageable);
     }
     
     public List<BorrowedBook> findOverdueBooks() {
-        return borrowedBookRepository.findOverdueBooks(LocalDate.now());
+        return borrowedBookRepository.findOverdueBooks();
     }
     
     public List<BorrowedBook> findBooksDueOn(LocalDate date) {
@@ -91,53 +155,149 @@ public class BorrowedBookService {
     }
     
     public BorrowedBook borrowBook(BorrowedBook borrowedBook) {
-        Book book = bookService.findById(borrowedBook.getBook().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Book not found"));
+        Long bookId = borrowedBook.getBook().getId();
+        Long memberId = borrowedBook.getMember().getId();
         
-        Member member = memberService.findById(borrowedBook.getMember().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Member not found"));
+        if (!bookAvailabilityService.isTracked(bookId)) {
+            throw new IllegalArgumentException("Book not found");
+        }
+        // Checked before a copy is taken; the reference below would only fail at INSERT
+        if (!memberService.existsById(memberId)) {
+            throw new IllegalArgumentException("Member not found");
+        }
         
-        if (book.getAvailableCopies() <= 0) {
+        // One conditional UPDATE on books; the copy is handed back if this transaction rolls back
+        if (!bookService.borrowBook(bookId)) {
             throw new IllegalArgumentException("No copies available for borrowing");
         }
         
-        // Set default values if not provided
-        if (borrowedBook.getBorrowDate() == null) {
-            borrowedBook.setBorrowDate(LocalDate.now());
-        }
-        if (borrowedBook.getDueDate() == null) {
-            borrowedBook.setDueDate(borrowedBook.getBorrowDate().plusDays(14)); // Default loan period: 14 days
+        // References only: the INSERT needs the foreign keys, not the loaded entities
+        borrowedBook.setBook(bookService.getReference(bookId));
+        borrowedBook.setMember(memberService.getReference(memberId));
+        applyBorrowDefaults(borrowedBook);
+        
+        BorrowedBook saved = borrowedBookRepository.save(borrowedBook);
+        overdueService.register(saved);
+        return saved;
+    }
+    
+    /**
+     * Borrows several books in one transaction. Members are checked with one query, copies are
+     * reserved with one JDBC batch and the loans are inserted with another. Items that fail are
+     * reported in place and the rest go through.
+     */
+    public BatchResult<BorrowedBook> borrowBooks(List<BorrowedBook> borrowedBooks) {
+        checkBatchSize(borrowedBooks);
+        List<BatchItemResult<BorrowedBook>> results = new ArrayList<>(Collections.nCopies(borrowedBooks.size(), null));
+        
+        Set<Long> memberIds = borrowedBooks.stream()
+                .map(this::memberIdOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingMembers = memberService.findExistingIds(memberIds);
+        
+        List<Integer> positions = new ArrayList<>();
+        List<Long> bookIds = new ArrayList<>();
+        for (int i = 0; i < borrowedBooks.size(); i++) {
+            BorrowedBook borrowedBook = borrowedBooks.get(i);
+            Long bookId = bookIdOf(borrowedBook);
+            Long memberId = memberIdOf(borrowedBook);
+            if (bookId == null) {
+                results.set(i, BatchItemResult.failure(i, "Book is required"));
+            } else if (memberId == null) {
+                results.set(i, BatchItemResult.failure(i, "Member is required"));
+            } else if (!existingMembers.contains(memberId)) {
+                results.set(i, BatchItemResult.failure(i, "Member not found"));
+            } else if (!bookAvailabilityService.isTracked(bookId)) {
+                results.set(i, BatchItemResult.failure(i, "Book not found"));
+            } else {
+                positions.add(i);
+                bookIds.add(bookId);
+            }
         }
-        borrowedBook.setStatus(BorrowStatus.BORROWED);
         
-        // Update book available copies
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        bookService.save(book);
+        boolean[] reserved = bookIds.isEmpty() ? new boolean[0] : bookAvailabilityService.tryReserveAll(bookIds);
+        List<Integer> insertPositions = new ArrayList<>();
+        List<BorrowedBook> toInsert = new ArrayList<>();
+        for (int j = 0; j < positions.size(); j++) {
+            int i = positions.get(j);
+            if (!reserved[j]) {
+                results.set(i, BatchItemResult.failure(i, "No copies available for borrowing"));
+                continue;
+            }
+            BorrowedBook borrowedBook = borrowedBooks.get(i);
+            applyBorrowDefaults(borrowedBook);
+            insertPositions.add(i);
+            toInsert.add(borrowedBook);
+        }
         
-        return borrowedBookRepository.save(borrowedBook);
+        if (!toInsert.isEmpty()) {
+            List<Long> ids = circulationBatchRepository.insertBorrowedBooks(toInsert);
+            Map<Long, BorrowedBook> saved = borrowedBookRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(BorrowedBook::getId, Function.identity()));
+            for (int k = 0; k < ids.size(); k++) {
+                int i = insertPositions.get(k);
+                BorrowedBook borrowedBook = saved.get(ids.get(k));
+                overdueService.register(borrowedBook);
+                results.set(i, BatchItemResult.success(i, borrowedBook));
+            }
+        }
+        return new BatchResult<>(results);
     }
     
     public Optional<BorrowedBook> returnBook(Long id, LocalDate returnDate) {
         Optional<BorrowedBook> borrowedBookOpt = borrowedBookRepository.findById(id);
         if (borrowedBookOpt.isPresent()) {
             BorrowedBook borrowedBook = borrowedBookOpt.get();
-            if (borrowedBook.getStatus() != BorrowStatus.BORROWED) {
+            if (!isOnLoan(borrowedBook)) {
                 throw new IllegalArgumentException("Book is not in borrowed status");
             }
             
             borrowedBook.setReturnDate(returnDate);
             borrowedBook.setStatus(BorrowStatus.RETURNED);
             
-            // Update book available copies
-            Book book = borrowedBook.getBook();
-            book.setAvailableCopies(book.getAvailableCopies() + 1);
-            bookService.save(book);
+            // Hand the copy back to the availability ledger
+            bookService.returnBook(borrowedBook.getBook().getId());
             
             return Optional.of(borrowedBookRepository.save(borrowedBook));
         }
         return Optional.empty();
     }
     
+    /**
+     * Returns several loans in one transaction. The loans are loaded with one query and the status
+     * updates are flushed as a single Hibernate batch at commit.
+     */
+    public BatchResult<BorrowedBook> returnBooks(List<BatchReturnItem> items) {
+        checkBatchSize(items);
+        Set<Long> ids = items.stream()
+                .map(BatchReturnItem::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        Map<Long, BorrowedBook> loans = borrowedBookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(BorrowedBook::getId, Function.identity()));
+        
+        List<BatchItemResult<BorrowedBook>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BatchReturnItem item = items.get(i);
+            BorrowedBook borrowedBook = item.getId() != null ? loans.get(item.getId()) : null;
+            if (borrowedBook == null) {
+                results.add(BatchItemResult.failure(i, "Borrowed book not found"));
+                continue;
+            }
+            if (!isOnLoan(borrowedBook)) {
+                results.add(BatchItemResult.failure(i, "Book is not in borrowed status"));
+                continue;
+            }
+            
+            borrowedBook.setReturnDate(item.getReturnDate() != null ? item.getReturnDate() : LocalDate.now());
+            borrowedBook.setStatus(BorrowStatus.RETURNED);
+            bookService.returnBook(borrowedBook.getBook().getId());
+            results.add(BatchItemResult.success(i, borrowedBook));
+        }
+        return new BatchResult<>(results);
+    }
+    
     public Optional<BorrowedBook> updateStatus(Long id, BorrowStatus status) {
         Optional<BorrowedBook> borrowedBookOpt = borrowedBookRepository.findById(id);
         if (borrowedBookOpt.isPresent()) {
@@ -156,6 +316,39 @@ public class BorrowedBookService {
         return borrowedBookRepository.countCurrentBorrows();
     }
     
+    private void applyBorrowDefaults(BorrowedBook borrowedBook) {
+        if (borrowedBook.getBorrowDate() == null) {
+            borrowedBook.setBorrowDate(LocalDate.now());
+        }
+        if (borrowedBook.getDueDate() == null) {
+            borrowedBook.setDueDate(borrowedBook.getBorrowDate().plusDays(14)); // Default loan period: 14 days
+        }
+        // Backdated loans that are already past due skip the overdue sweep
+        borrowedBook.setStatus(borrowedBook.getDueDate().isBefore(LocalDate.now())
+                ? BorrowStatus.OVERDUE : BorrowStatus.BORROWED);
+    }
+    
+    private boolean isOnLoan(BorrowedBook borrowedBook) {
+        return borrowedBook.getStatus() == BorrowStatus.BORROWED || borrowedBook.getStatus() == BorrowStatus.OVERDUE;
+    }
+    
+    private void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item");
+        }
+        if (items.size() > maxBatchItems) {
+            throw new IllegalArgumentException("Batch must not exceed " + maxBatchItems + " items");
+        }
+    }
+    
+    private Long bookIdOf(BorrowedBook borrowedBook) {
+        return borrowedBook.getBook() != null ? borrowedBook.getBook().getId() : null;
+    }
+    
+    private Long memberIdOf(BorrowedBook borrowedBook) {
+        return borrowedBook.getMember() != null ? borrowedBook.getMember().getId() : null;
+    }
+    
     private void validateBorrowedBook(BorrowedBook borrowedBook) {
         if (borrowedBook.getMember() == null) {
             throw new IllegalArgumentException("Member is required");
@@ -0,0 +1,290 @@
+package com.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.dto.ImportReport;
+import com.library.model.Author;
+import com.library.model.Book;
+import com.library.repository.AuthorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk catalog import for books and authors from CSV (with a header row) or JSON lines.
+ * <p>
+ * Input is parsed one record at a time and handled in chunks: each chunk is converted and
+ * validated in parallel with the same rules as {@code POST /books}, its author names are resolved
+ * through a per-import cache (unknown authors are created), and its books are written with one
+ * multi-row INSERT in its own transaction. Rows whose ISBN already exists are counted as duplicates
+ * and skipped. Not transactional as a whole, so a failure keeps the chunks already written.
+ */
+@Service
+public class CatalogImportService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            if (contentType != null && contentType.toLowerCase().startsWith("text/csv")) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+
+        public static Format fromFileName(String fileName) {
+            return fileName.toLowerCase().endsWith(".csv") ? CSV : NDJSON;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    // 8 bind parameters per row; PostgreSQL allows at most 32767 per statement
+    private static final int MAX_ROWS_PER_STATEMENT = 4000;
+    private static final String INSERT_BOOKS =
+            "INSERT INTO books (title, isbn, category, publishing_year, description, total_copies, available_copies, author_id) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final BookService bookService;
+    private final BookSearchIndex bookSearchIndex;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final CategoryFacetService categoryFacetService;
+    private final AuthorRepository authorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${library.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${library.import.progress-interval:50000}")
+    private long progressInterval;
+
+    @Autowired
+    public CatalogImportService(BookService bookService,
+                                BookSearchIndex bookSearchIndex,
+                                SecondLevelCacheService secondLevelCacheService,
+                                CategoryFacetService categoryFacetService,
+                                AuthorRepository authorRepository,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper) {
+        this.bookService = bookService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.secondLevelCacheService = secondLevelCacheService;
+        this.categoryFacetService = categoryFacetService;
+        this.authorRepository = authorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public ImportReport importBooks(InputStream input, Format format) throws IOException {
+        long start = System.nanoTime();
+        int size = Math.max(1, Math.min(chunkSize, MAX_ROWS_PER_STATEMENT));
+        ImportReport report = new ImportReport();
+        Map<String, Long> authorIds = new HashMap<>();
+
+        logger.info("Catalog import started ({}, chunks of {})", format, size);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            CatalogRecordReader records = format == Format.CSV
+                    ? CatalogRecordReader.csv(reader)
+                    : CatalogRecordReader.jsonLines(reader, objectMapper);
+
+            List<CatalogRecordReader.RawRecord> chunk = new ArrayList<>(size);
+            long nextProgress = progressInterval;
+            CatalogRecordReader.RawRecord record;
+            while ((record = records.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == size) {
+                    importChunk(chunk, authorIds, report);
+                    chunk.clear();
+                    if (progressInterval > 0 && report.getProcessed() >= nextProgress) {
+                        logProgress(report, start);
+                        nextProgress += progressInterval;
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, authorIds, report);
+            }
+        }
+
+        // Imported rows bypass BookService and Hibernate, so the search index and category facets
+        // are reloaded in one pass and cached category lists are dropped
+        if (report.getImported() > 0) {
+            secondLevelCacheService.evictCategoryQueries();
+            if (bookSearchIndex.isReady()) {
+                bookSearchIndex.rebuild();
+            }
+            if (categoryFacetService.isReady()) {
+                categoryFacetService.rebuild();
+            }
+        }
+        
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Catalog import finished: {} processed, {} imported, {} duplicates, {} rejected, {} authors created in {} ms",
+                report.getProcessed(), report.getImported(), report.getDuplicates(), report.getRejected(),
+                report.getAuthorsCreated(), report.getElapsedMillis());
+        return report;
+    }
+
+    private void importChunk(List<CatalogRecordReader.RawRecord> chunk, Map<String, Long> authorIds, ImportReport report) {
+        // Conversion and validation are CPU-only, so the chunk is spread over the common pool
+        List<Object> converted = chunk.parallelStream().map(this::toBook).toList();
+
+        List<Book> books = new ArrayList<>(converted.size());
+        for (Object item : converted) {
+            if (item instanceof Book book) {
+                books.add(book);
+            } else {
+                report.setRejected(report.getRejected() + 1);
+                if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                    report.getErrors().add((String) item);
+                }
+            }
+        }
+        report.setProcessed(report.getProcessed() + chunk.size());
+        if (books.isEmpty()) {
+            return;
+        }
+
+        Integer inserted = transactionTemplate.execute(status -> {
+            resolveAuthors(books, authorIds, report);
+            return insertBooks(books);
+        });
+        int written = inserted != null ? inserted : 0;
+        report.setImported(report.getImported() + written);
+        report.setDuplicates(report.getDuplicates() + books.size() - written);
+    }
+
+    /**
+     * Returns the validated {@link Book} or an error message for the record.
+     */
+    private Object toBook(CatalogRecordReader.RawRecord record) {
+        if (record.error != null) {
+            return "Line " + record.line + ": " + record.error;
+        }
+        try {
+            Book book = new Book();
+            book.setTitle(record.get("title"));
+            book.setIsbn(record.get("isbn"));
+            book.setCategory(record.get("category"));
+            book.setPublishingYear(parseInteger(record, "publishingyear"));
+            book.setDescription(record.get("description"));
+            book.setTotalCopies(parseInteger(record, "totalcopies"));
+            book.setAvailableCopies(parseInteger(record, "availablecopies"));
+
+            String authorName = record.get("author") != null ? record.get("author") : record.get("authorname");
+            if (authorName != null) {
+                if (authorName.length() > 100) {
+                    throw new IllegalArgumentException("Author name must not exceed 100 characters");
+                }
+                Author author = new Author();
+                author.setName(authorName);
+                book.setAuthor(author);
+            }
+
+            bookService.validateBook(book);
+
+            // Same defaults as BookService.save
+            if (book.getTotalCopies() == null) {
+                book.setTotalCopies(1);
+            }
+            if (book.getAvailableCopies() == null) {
+                book.setAvailableCopies(book.getTotalCopies());
+            }
+            return book;
+        } catch (IllegalArgumentException e) {
+            return "Line " + record.line + ": " + e.getMessage();
+        }
+    }
+
+    private void resolveAuthors(List<Book> books, Map<String, Long> authorIds, ImportReport report) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (Book book : books) {
+            if (!authorIds.containsKey(book.getAuthor().getName())) {
+                missing.add(book.getAuthor().getName());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (Author author : authorRepository.findByNameIn(missing)) {
+                authorIds.putIfAbsent(author.getName(), author.getId());
+                missing.remove(author.getName());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<Author> created = new ArrayList<>(missing.size());
+            for (String name : missing) {
+                Author author = new Author();
+                author.setName(name);
+                created.add(author);
+            }
+            for (Author author : authorRepository.saveAll(created)) {
+                authorIds.put(author.getName(), author.getId());
+            }
+            report.setAuthorsCreated(report.getAuthorsCreated() + created.size());
+        }
+
+        for (Book book : books) {
+            book.getAuthor().setId(authorIds.get(book.getAuthor().getName()));
+        }
+    }
+
+    private int insertBooks(List<Book> books) {
+        StringBuilder sql = new StringBuilder(INSERT_BOOKS.length() + books.size() * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_BOOKS);
+        List<Object> args = new ArrayList<>(books.size() * 8);
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDERS);
+            args.add(book.getTitle());
+            args.add(book.getIsbn());
+            args.add(book.getCategory());
+            args.add(book.getPublishingYear());
+            args.add(book.getDescription());
+            args.add(book.getTotalCopies());
+            args.add(book.getAvailableCopies());
+            args.add(book.getAuthor().getId());
+        }
+        // Existing ISBNs (and repeats within the chunk) are skipped rather than failing the chunk
+        sql.append(" ON CONFLICT DO NOTHING");
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static Integer parseInteger(CatalogRecordReader.RawRecord record, String field) {
+        String value = record.get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + field + ": " + value);
+        }
+    }
+
+    private void logProgress(ImportReport report, long start) {
+        double seconds = Math.max((System.nanoTime() - start) / 1e9, 0.001);
+        logger.info("Catalog import progress: {} processed, {} imported, {} rejected ({} rows/s)",
+                report.getProcessed(), report.getImported(), report.getRejected(),
+                Math.round(report.getProcessed() / seconds));
+    }
+}
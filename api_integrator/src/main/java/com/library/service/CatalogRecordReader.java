@@ -0,0 +1,206 @@
+package com.library.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads catalog records one at a time, so an import never holds more than the current chunk.
+ * Field names are normalized (lower case, without '_', '-' or spaces), so {@code publishing_year}
+ * and {@code publishingYear} are the same column.
+ */
+abstract class CatalogRecordReader {
+
+    /**
+     * One raw input record with the line it started on.
+     */
+    static final class RawRecord {
+        final long line;
+        final Map<String, String> fields;
+        final String error;
+
+        RawRecord(long line, Map<String, String> fields, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.error = error;
+        }
+
+        String get(String field) {
+            String value = fields.get(field);
+            if (value == null || value.trim().isEmpty()) {
+                return null;
+            }
+            return value.trim();
+        }
+    }
+
+    protected final BufferedReader reader;
+
+    protected CatalogRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next record, or {@code null} at end of input.
+     */
+    abstract RawRecord next() throws IOException;
+
+    static CatalogRecordReader csv(BufferedReader reader) {
+        return new Csv(reader);
+    }
+
+    static CatalogRecordReader jsonLines(BufferedReader reader, ObjectMapper objectMapper) {
+        return new JsonLines(reader, objectMapper);
+    }
+
+    static String normalize(String field) {
+        return field.trim().toLowerCase().replace("_", "").replace("-", "").replace(" ", "");
+    }
+
+    /**
+     * RFC 4180 CSV with a header row; quoted fields may contain commas, quotes ("") and newlines.
+     */
+    private static final class Csv extends CatalogRecordReader {
+
+        private List<String> header;
+        private long line;
+
+        Csv(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        RawRecord next() throws IOException {
+            if (header == null) {
+                List<String> columns = readRow();
+                if (columns == null) {
+                    return null;
+                }
+                header = new ArrayList<>(columns.size());
+                for (String column : columns) {
+                    header.add(normalize(column));
+                }
+            }
+
+            List<String> values;
+            long start;
+            do {
+                start = line + 1;
+                values = readRow();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isEmpty());
+
+            if (values.size() > header.size()) {
+                return new RawRecord(start, Map.of(), "Expected " + header.size() + " columns but found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return new RawRecord(start, fields, null);
+        }
+
+        private List<String> readRow() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            line++;
+
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            value.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        value.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    value.append((char) c);
+                }
+                c = reader.read();
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+
+    /**
+     * One JSON object per line. {@code author} may be a name or an object with a {@code name}.
+     */
+    private static final class JsonLines extends CatalogRecordReader {
+
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        JsonLines(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        RawRecord next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                if (text == null) {
+                    return null;
+                }
+                line++;
+            } while (text.trim().isEmpty());
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return new RawRecord(line, Map.of(), "Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return new RawRecord(line, Map.of(), "Expected a JSON object");
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> it = node.fields();
+            while (it.hasNext()) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                JsonNode value = entry.getValue();
+                if (value.isObject()) {
+                    value = value.path("name");
+                }
+                if (!value.isNull() && !value.isMissingNode()) {
+                    fields.put(normalize(entry.getKey()), value.asText());
+                }
+            }
+            return new RawRecord(line, fields, null);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.library.service;
+
+import com.library.dto.CategoryCount;
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import com.library.repository.BookRepository.CategoryFields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * In-memory category facets: for every category, how many books it has and how many of them have
+ * a copy available.
+ * <p>
+ * Loaded from the books table at startup and kept in step incrementally: book saves and deletes
+ * apply after they commit, and the availability ledger reports titles that run out or become
+ * available again. Imports rebuild the facets, and a periodic rebuild
+ * corrects any drift (writes by other instances, or changes racing a rebuild). Like the
+ * availability ledger it is local to one instance.
+ */
+@Service
+public class CategoryFacetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryFacetService.class);
+
+    private static final class Facet {
+        final String category;
+        final AtomicInteger total = new AtomicInteger();
+        final AtomicInteger available = new AtomicInteger();
+
+        Facet(String category) {
+            this.category = category;
+        }
+    }
+
+    /**
+     * Facet and availability of one book as last counted. Books share their facet's category
+     * string, so a large catalog keeps one copy per category.
+     */
+    private record Membership(Facet facet, boolean available) {}
+
+    /**
+     * Facet counts together with the per-book memberships they were derived from; swapped as a
+     * whole on rebuild.
+     */
+    private static final class State {
+        final ConcurrentHashMap<Long, Membership> books = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Facet> facets = new ConcurrentHashMap<>();
+    }
+
+    private final BookRepository bookRepository;
+    // One rebuild at a time
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile State state = new State();
+    private volatile boolean ready;
+
+    @Autowired
+    public CategoryFacetService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Recounts every category from the database, e.g. after a bulk import.
+     */
+    @Scheduled(fixedDelayString = "${library.facets.refresh-interval-ms:600000}",
+            initialDelayString = "${library.facets.refresh-interval-ms:600000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            List<CategoryFields> rows = bookRepository.findAllCategoryFields();
+            State fresh = new State();
+            for (CategoryFields row : rows) {
+                boolean available = row.availableCopies() != null && row.availableCopies() > 0;
+                add(fresh, row.id(), row.category(), available);
+            }
+            state = fresh;
+            ready = true;
+            logger.debug("Category facets built with {} books in {} categories in {} ms",
+                    fresh.books.size(), fresh.facets.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Categories that have at least one book, sorted by name.
+     */
+    public List<String> getCategories() {
+        List<String> categories = new ArrayList<>();
+        for (Facet facet : state.facets.values()) {
+            if (facet.total.get() > 0) {
+                categories.add(facet.category);
+            }
+        }
+        categories.sort(null);
+        return categories;
+    }
+
+    /**
+     * Book counts of every non-empty category, sorted by name.
+     */
+    public List<CategoryCount> getCounts() {
+        List<CategoryCount> counts = new ArrayList<>();
+        for (Facet facet : state.facets.values()) {
+            int total = facet.total.get();
+            if (total > 0) {
+                counts.add(new CategoryCount(facet.category, total, facet.available.get()));
+            }
+        }
+        counts.sort(Comparator.comparing(CategoryCount::getCategory));
+        return counts;
+    }
+
+    /**
+     * Counts a saved book under its current category once the surrounding transaction commits.
+     */
+    public void put(Book book) {
+        if (book.getId() == null) {
+            return;
+        }
+        Long bookId = book.getId();
+        String category = book.getCategory();
+        boolean available = book.getAvailableCopies() != null && book.getAvailableCopies() > 0;
+        afterCommit(() -> {
+            State current = state;
+            current.books.compute(bookId, (id, previous) -> {
+                if (previous != null) {
+                    subtract(previous);
+                }
+                return add(current, category, available);
+            });
+        });
+    }
+
+    public void remove(Long bookId) {
+        afterCommit(() -> {
+            State current = state;
+            current.books.computeIfPresent(bookId, (id, previous) -> {
+                subtract(previous);
+                return null;
+            });
+        });
+    }
+
+    public void removeAll(Collection<Long> bookIds) {
+        bookIds.forEach(this::remove);
+    }
+
+    /**
+     * Called by the availability ledger when a title runs out or gets a copy back. The current
+     * state is read under the book's entry lock, so racing notifications settle on the latest value.
+     */
+    public void availabilityChanged(Long bookId, BooleanSupplier available) {
+        State current = state;
+        current.books.computeIfPresent(bookId, (id, previous) -> {
+            boolean now = available.getAsBoolean();
+            if (now == previous.available()) {
+                return previous;
+            }
+            previous.facet().available.addAndGet(now ? 1 : -1);
+            return new Membership(previous.facet(), now);
+        });
+    }
+
+    private static void add(State target, Long bookId, String category, boolean available) {
+        Membership membership = add(target, category, available);
+        if (membership != null) {
+            target.books.put(bookId, membership);
+        }
+    }
+
+    /**
+     * Counts one book and returns its membership, or {@code null} for a book without a category.
+     */
+    private static Membership add(State target, String category, boolean available) {
+        if (category == null) {
+            return null;
+        }
+        Facet facet = target.facets.computeIfAbsent(category, Facet::new);
+        facet.total.incrementAndGet();
+        if (available) {
+            facet.available.incrementAndGet();
+        }
+        return new Membership(facet, available);
+    }
+
+    private static void subtract(Membership membership) {
+        membership.facet().total.decrementAndGet();
+        if (membership.available()) {
+            membership.facet().available.decrementAndGet();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.library.service;
+
+import com.library.dto.CursorPage;
+import org.springframework.beans.BeanUtils;
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.beans.PropertyDescriptor;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyset ("seek") pagination for list endpoints. Each page is read with
+ * {@code WHERE (sortKey, id) > (last sortKey, last id) ORDER BY sortKey, id LIMIT size + 1}, so its
+ * cost does not depend on how deep the page is and no count query runs.
+ * <p>
+ * The cursor is opaque to clients: it carries the sort property and direction together with the
+ * last row's key values, so later pages always continue the order of the first. Only non-null
+ * columns can be keys, which is why each caller passes the properties it allows.
+ */
+final class KeysetPager {
+
+    private static final String ID = "id";
+    private static final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    private KeysetPager() {}
+
+    /**
+     * Reads the page after {@code after} (the first page when it is empty). {@code sort} is only
+     * used for the first page; later pages take the order from the cursor. {@code fetch} names the
+     * lazy associations to load with the page, in the same statement.
+     */
+    static <T> CursorPage<T> scroll(JpaSpecificationExecutor<T> repository, Class<T> type, Specification<T> filter,
+                                    String after, int size, Sort sort, Set<String> sortable, String... fetch) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        String property;
+        Sort.Direction direction;
+        ScrollPosition position;
+        if (after == null || after.isEmpty()) {
+            Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc(ID));
+            property = order.getProperty();
+            direction = order.getDirection();
+            position = ScrollPosition.keyset();
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            property = cursor.property;
+            direction = cursor.descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(property, convert(type, property, cursor.value));
+            keys.put(ID, cursor.id);
+            position = ScrollPosition.forward(keys);
+        }
+        if (!sortable.contains(property)) {
+            throw new IllegalArgumentException("Cursor pagination cannot sort by '" + property + "', use one of " + sortable);
+        }
+
+        // id breaks ties, in the same direction so one composite index can serve the scan
+        Sort order = ID.equals(property)
+                ? Sort.by(direction, ID)
+                : Sort.by(direction, property).and(Sort.by(direction, ID));
+        Specification<T> where = Specification.where(filter).and(fetching(fetch));
+        Window<T> window = repository.findBy(where, query -> query.sortBy(order).limit(size).scroll(position));
+
+        String next = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Map<String, Object> last = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+            next = new Cursor(property, direction.isDescending(), String.valueOf(last.get(property)),
+                    ((Number) last.get(ID)).longValue()).encode();
+        }
+        return new CursorPage<>(window.getContent(), size, next);
+    }
+
+    /**
+     * Fetch-joins the given association paths ({@code "book.author"} reuses the join of
+     * {@code "book"}); count queries are left alone.
+     */
+    private static <T> Specification<T> fetching(String... paths) {
+        return (root, query, cb) -> {
+            if (paths.length == 0 || Long.class.equals(query.getResultType())) {
+                return null;
+            }
+            for (String path : paths) {
+                FetchParent<?, ?> parent = root;
+                for (String attribute : path.split("\\.")) {
+                    FetchParent<?, ?> from = parent;
+                    parent = from.getFetches().stream()
+                            .filter(fetch -> fetch.getAttribute().getName().equals(attribute))
+                            .findFirst()
+                            .<FetchParent<?, ?>>map(fetch -> fetch)
+                            .orElseGet(() -> from.fetch(attribute, JoinType.LEFT));
+                }
+            }
+            return null;
+        };
+    }
+
+    private static Object convert(Class<?> type, String property, String value) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, property);
+        if (descriptor == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        Class<?> target = descriptor.getPropertyType();
+        try {
+            // Keys are written with toString(), which is ISO-8601 for java.time values
+            if (target == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            if (target == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            return conversionService.convert(value, target);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static final class Cursor {
+        final String property;
+        final boolean descending;
+        final String value;
+        final long id;
+
+        Cursor(String property, boolean descending, String value, long id) {
+            this.property = property;
+            this.descending = descending;
+            this.value = value;
+            this.id = id;
+        }
+
+        String encode() {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeUTF(property);
+                out.writeBoolean(descending);
+                out.writeUTF(value);
+                out.writeLong(id);
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)));
+                return new Cursor(in.readUTF(), in.readBoolean(), in.readUTF(), in.readLong());
+            } catch (IOException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
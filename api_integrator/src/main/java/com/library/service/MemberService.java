@@ -1,17 +1,25 @@
 package com.library.service;
 
+import com.library.dto.CursorPage;
 import com.library.model.Member;
 import com.library.model.Member.MembershipStatus;
 import com.library.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 @Service
@@ -19,17 +27,29 @@ import java.util.regex.Pattern;
 public class MemberService {
     
     private final MemberRepository memberRepository;
+    private final EntityManager entityManager;
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    private static final Set<String> KEYSET_SORTS = Set.of("id", "name", "email");
     
     @Autowired
-    public MemberService(MemberRepository memberRepository) {
+    public MemberService(MemberRepository memberRepository, EntityManager entityManager) {
         this.memberRepository = memberRepository;
+        this.entityManager = entityManager;
     }
     
     public Page<Member> findAll(Pageable pageable) {
         return memberRepository.findAll(pageable);
     }
     
+    /**
+     * Cursor-paged listing, optionally limited to one status; see {@link KeysetPager}.
+     */
+    public CursorPage<Member> findAllAfter(String after, int size, Sort sort, MembershipStatus status) {
+        Specification<Member> filter = status == null ? null
+                : (root, query, cb) -> cb.equal(root.get("status"), status);
+        return KeysetPager.scroll(memberRepository, Member.class, filter, after, size, sort, KEYSET_SORTS);
+    }
+    
     public List<Member> findAll() {
         return memberRepository.findAll();
     }
@@ -38,12 +58,30 @@ public class MemberService {
         return memberRepository.findById(id);
     }
     
+    public Member getReference(Long id) {
+        return memberRepository.getReferenceById(id);
+    }
+    
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(memberRepository.findExistingIds(ids));
+    }
+    
+    public List<Long> findIdsByNameContaining(String searchTerm, Pageable pageable) {
+        return memberRepository.findIdsByNameContaining(searchTerm, pageable);
+    }
+    
     public Optional<Member> findByIdWithBorrowedBooks(Long id) {
         return memberRepository.findByIdWithBorrowedBooks(id);
     }
     
+    /**
+     * Resolved through the natural-id cache, so repeated lookups skip the database.
+     */
     public Optional<Member> findByEmail(String email) {
-        return memberRepository.findByEmail(email);
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Member.class).loadOptional(email);
     }
     
     public Page<Member> findBySearchTerm(String searchTerm, Pageable pageable) {
@@ -116,7 +154,7 @@ public class MemberService {
     }
     
     public boolean existsByEmail(String email) {
-        return memberRepository.findByEmail(email).isPresent();
+        return findByEmail(email).isPresent();
     }
     
     public Long countCurrentBorrowsByMember(Long memberId) {
@@ -181,7 +219,7 @@ public class MemberService {
         }
         
         // Check for duplicate email (excluding current member if updating)
-        Optional<Member> existingMember = memberRepository.findByEmail(member.getEmail());
+        Optional<Member> existingMember = findByEmail(member.getEmail());
         if (existingMember.isPresent() && !existingMember.get().getId().equals(member.getId())) {
             throw new IllegalArgumentException("Email already exists");
         }
@@ -0,0 +1,202 @@
+package com.library.service;
+
+import com.library.model.BorrowedBook;
+import com.library.model.BorrowedBook.BorrowStatus;
+import com.library.repository.BorrowedBookRepository;
+import com.library.repository.CirculationBatchRepository;
+import com.library.repository.CirculationBatchRepository.LoanDue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves loans from BORROWED to OVERDUE once their due date has passed, so overdue reads are plain
+ * lookups on the status index.
+ * <p>
+ * Loans due within the next {@code library.overdue.horizon-days} are kept in memory in one slot
+ * per due date, ordered by date. A frequent tick fires every slot whose date has passed and marks
+ * exactly those loans by primary key. A periodic sweep, also run at startup, marks whatever the
+ * slots missed (loans due further out when they were borrowed, loans written by other instances)
+ * with a set-based UPDATE of at most {@code library.overdue.batch-size} rows per statement. Like
+ * the availability ledger the slots are local to one instance.
+ */
+@Service
+public class OverdueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueService.class);
+
+    private final CirculationBatchRepository circulationBatchRepository;
+    private final BorrowedBookRepository borrowedBookRepository;
+
+    // Held by tick and sweep, so scheduled and startup runs do not overlap
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ConcurrentSkipListMap<LocalDate, Set<Long>> slots = new ConcurrentSkipListMap<>();
+    // Loans due before this date (exclusive) are in the slots; null until the first tick
+    private volatile LocalDate horizonEnd;
+
+    private final AtomicLong markedOnTick = new AtomicLong();
+    private final AtomicLong markedBySweep = new AtomicLong();
+    private volatile LocalDateTime lastSweep;
+
+    @Value("${library.overdue.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${library.overdue.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    public OverdueService(CirculationBatchRepository circulationBatchRepository,
+                          BorrowedBookRepository borrowedBookRepository) {
+        this.circulationBatchRepository = circulationBatchRepository;
+        this.borrowedBookRepository = borrowedBookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        sweep();
+        tick();
+    }
+
+    /**
+     * Marks the loans of every slot whose due date has passed, then loads the loans that came
+     * into the horizon since the last tick.
+     */
+    @Scheduled(fixedDelayString = "${library.overdue.tick-interval-ms:60000}",
+            initialDelayString = "${library.overdue.tick-interval-ms:60000}")
+    public void tick() {
+        lock.lock();
+        try {
+            LocalDate today = LocalDate.now();
+            int marked = 0;
+            Map.Entry<LocalDate, Set<Long>> slot;
+            while ((slot = slots.firstEntry()) != null && slot.getKey().isBefore(today)) {
+                slots.remove(slot.getKey());
+                List<Long> loanIds = new ArrayList<>(slot.getValue());
+                for (int from = 0; from < loanIds.size(); from += batchSize) {
+                    List<Long> chunk = loanIds.subList(from, Math.min(from + batchSize, loanIds.size()));
+                    marked += circulationBatchRepository.markOverdue(chunk, today);
+                }
+            }
+            if (marked > 0) {
+                markedOnTick.addAndGet(marked);
+                logger.info("Marked {} loans overdue on their due date", marked);
+            }
+
+            LocalDate end = today.plusDays(horizonDays);
+            LocalDate loaded = horizonEnd;
+            if (loaded == null || end.isAfter(loaded)) {
+                LocalDate from = loaded == null || loaded.isBefore(today) ? today : loaded;
+                // Published before the query so a loan committed meanwhile is either seen by the
+                // query or added by register()
+                horizonEnd = end;
+                for (LoanDue due : circulationBatchRepository.findLoansDueBetween(from, end)) {
+                    schedule(due.id(), due.dueDate());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks every open loan that is past due, {@code library.overdue.batch-size} rows per
+     * statement, and returns how many were marked.
+     */
+    @Scheduled(fixedDelayString = "${library.overdue.sweep-interval-ms:3600000}",
+            initialDelayString = "${library.overdue.sweep-interval-ms:3600000}")
+    public int sweep() {
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+            LocalDate today = LocalDate.now();
+            int marked = 0;
+            int updated;
+            do {
+                updated = circulationBatchRepository.markOverdue(today, batchSize);
+                marked += updated;
+            } while (updated >= batchSize);
+            markedBySweep.addAndGet(marked);
+            lastSweep = LocalDateTime.now();
+            if (marked > 0) {
+                logger.info("Overdue sweep marked {} loans in {} ms", marked, (System.nanoTime() - start) / 1_000_000);
+            }
+            return marked;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schedules a new loan for its due date once the surrounding transaction commits. Loans due
+     * beyond the horizon are loaded by a later tick.
+     */
+    public void register(BorrowedBook borrowedBook) {
+        Long loanId = borrowedBook.getId();
+        LocalDate dueDate = borrowedBook.getDueDate();
+        if (loanId == null || dueDate == null || borrowedBook.getStatus() != BorrowStatus.BORROWED) {
+            return;
+        }
+        afterCommit(() -> {
+            LocalDate end = horizonEnd;
+            if (end != null && dueDate.isBefore(end)) {
+                schedule(loanId, dueDate);
+            }
+        });
+    }
+
+    /**
+     * Loans marked so far, loans waiting in the slots and the current number of overdue loans.
+     */
+    public Map<String, Object> getStatistics() {
+        int scheduled = 0;
+        for (Set<Long> loanIds : slots.values()) {
+            scheduled += loanIds.size();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("overdueLoans", borrowedBookRepository.countByStatus(BorrowStatus.OVERDUE));
+        result.put("scheduledLoans", scheduled);
+        result.put("scheduledDays", slots.size());
+        result.put("horizonEnd", horizonEnd);
+        result.put("markedOnTick", markedOnTick.get());
+        result.put("markedBySweep", markedBySweep.get());
+        result.put("lastSweep", lastSweep);
+        return result;
+    }
+
+    private void schedule(Long loanId, LocalDate dueDate) {
+        slots.computeIfAbsent(dueDate, date -> ConcurrentHashMap.newKeySet()).add(loanId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.library.service;
+
+import com.library.model.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache housekeeping. Writes made through the session keep the entity,
+ * natural-id and query regions consistent on their own; rows changed with plain JDBC (availability
+ * counters, catalog import) are evicted here instead.
+ */
+@Service
+public class SecondLevelCacheService {
+
+    public static final String CATEGORY_QUERY_REGION = "book-categories";
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public SecondLevelCacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public void evictBook(Long bookId) {
+        evictBooks(List.of(bookId));
+    }
+
+    /**
+     * Evicts the books now and again once the surrounding transaction has ended, since a concurrent
+     * reader may put the uncommitted row's previous state back in between.
+     */
+    public void evictBooks(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        Runnable evict = () -> bookIds.forEach(id -> sessionFactory.getCache().evictEntityData(Book.class, id));
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    public void evictCategoryQueries() {
+        sessionFactory.getCache().evictQueryRegion(CATEGORY_QUERY_REGION);
+    }
+
+    /**
+     * Hit, miss and put counts in total and per region. Counts stay at zero unless
+     * {@code hibernate.generate_statistics} is enabled.
+     */
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("secondLevel", counts(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("naturalId", counts(statistics.getNaturalIdCacheHitCount(),
+                statistics.getNaturalIdCacheMissCount(), statistics.getNaturalIdCachePutCount()));
+        result.put("query", counts(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, counts(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        result.put("regions", regions);
+        return result;
+    }
+
+    private static Map<String, Object> counts(long hits, long misses, long puts) {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        counts.put("puts", puts);
+        return counts;
+    }
+}
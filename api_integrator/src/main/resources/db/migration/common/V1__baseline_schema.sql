@@ -0,0 +1,66 @@
+-- Baseline of the four tables as the JPA mappings in com.library.model describe them. Hibernate
+-- validates the mapped columns against this schema at startup (ddl-auto: validate) and no longer
+-- changes it; every schema change is a new migration. Portable between PostgreSQL and H2 (in
+-- PostgreSQL mode), which is why the PostgreSQL-only indexes live in db/migration/postgresql.
+-- Databases created earlier by ddl-auto: update already have these tables; Flyway baselines them
+-- at version 1 (spring.flyway.baseline-on-migrate) and skips this script.
+
+CREATE TABLE authors (
+    id bigserial NOT NULL,
+    name varchar(100) NOT NULL,
+    biography varchar(500),
+    birth_year integer,
+    nationality varchar(50),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    CONSTRAINT authors_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE books (
+    id bigserial NOT NULL,
+    title varchar(200) NOT NULL,
+    isbn varchar(20),
+    category varchar(50) NOT NULL,
+    publishing_year integer NOT NULL,
+    description varchar(1000),
+    total_copies integer,
+    available_copies integer,
+    author_id bigint NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    CONSTRAINT books_pkey PRIMARY KEY (id),
+    CONSTRAINT books_isbn_key UNIQUE (isbn),
+    CONSTRAINT fk_book_author FOREIGN KEY (author_id) REFERENCES authors (id)
+);
+
+CREATE TABLE members (
+    id bigserial NOT NULL,
+    name varchar(100) NOT NULL,
+    email varchar(100) NOT NULL,
+    phone varchar(20),
+    address varchar(200),
+    membership_date timestamp(6),
+    status varchar(255) NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    CONSTRAINT members_pkey PRIMARY KEY (id),
+    CONSTRAINT members_email_key UNIQUE (email),
+    CONSTRAINT members_status_check CHECK (status IN ('ACTIVE', 'SUSPENDED', 'EXPIRED'))
+);
+
+CREATE TABLE borrowed_books (
+    id bigserial NOT NULL,
+    member_id bigint NOT NULL,
+    book_id bigint NOT NULL,
+    borrow_date date NOT NULL,
+    due_date date,
+    return_date date,
+    status varchar(255) NOT NULL,
+    notes varchar(500),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    CONSTRAINT borrowed_books_pkey PRIMARY KEY (id),
+    CONSTRAINT borrowed_books_status_check CHECK (status IN ('BORROWED', 'RETURNED', 'OVERDUE', 'LOST')),
+    CONSTRAINT fk_borrowed_book_member FOREIGN KEY (member_id) REFERENCES members (id),
+    CONSTRAINT fk_borrowed_book_book FOREIGN KEY (book_id) REFERENCES books (id)
+);
@@ -0,0 +1,30 @@
+-- B-tree indexes, formerly declared with @Table(indexes = ...) on the entities. IF NOT EXISTS
+-- makes this a no-op on baselined databases where ddl-auto already created them, and the DROPs
+-- remove the indexes that ddl-auto: update left behind when their definitions were replaced
+-- (it never drops anything).
+
+CREATE INDEX IF NOT EXISTS idx_author_name ON authors (name);
+
+CREATE INDEX IF NOT EXISTS idx_author_nationality ON authors (nationality);
+
+CREATE INDEX IF NOT EXISTS idx_book_title ON books (title);
+
+CREATE INDEX IF NOT EXISTS idx_book_isbn ON books (isbn);
+
+-- Serves the combined category / availability / year filters of GET /books, and category alone
+CREATE INDEX IF NOT EXISTS idx_book_category_available_year ON books (category, available_copies, publishing_year);
+
+CREATE INDEX IF NOT EXISTS idx_book_author ON books (author_id);
+
+CREATE INDEX IF NOT EXISTS idx_borrowed_book_member ON borrowed_books (member_id);
+
+CREATE INDEX IF NOT EXISTS idx_borrowed_book_book ON borrowed_books (book_id);
+
+CREATE INDEX IF NOT EXISTS idx_borrowed_book_status_due ON borrowed_books (status, due_date);
+
+CREATE INDEX IF NOT EXISTS idx_borrowed_book_dates ON borrowed_books (borrow_date, due_date);
+
+-- Superseded by idx_book_category_available_year and idx_borrowed_book_status_due
+DROP INDEX IF EXISTS idx_book_category;
+
+DROP INDEX IF EXISTS idx_borrowed_book_status;
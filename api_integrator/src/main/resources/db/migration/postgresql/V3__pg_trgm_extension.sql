@@ -0,0 +1,5 @@
+-- pg_trgm backs the trigram indexes of V4. Creating an extension needs the CREATE privilege on
+-- the database; where the application user lacks it, have a superuser run this statement once
+-- before the first start.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,15 @@
+-- Trigram indexes for the substring searches (LOWER(column) LIKE '%term%') on members and
+-- borrowed books. A GIN index over gin_trgm_ops serves leading-wildcard LIKE for terms of three
+-- or more characters; the expressions match the LOWER(...) used by the repository queries.
+-- The pg_trgm extension comes from V3. CONCURRENTLY keeps the tables writable while an index is
+-- built; Flyway runs such a migration outside a transaction. If a build is interrupted, drop the
+-- INVALID index by hand and remove the failed entry with flyway repair (or delete its row from
+-- flyway_schema_history) so the next start recreates it. Every statement is idempotent.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_member_name_trgm ON members USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_member_email_trgm ON members USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_member_phone_trgm ON members USING gin (lower(phone) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_title_trgm ON books USING gin (lower(title) gin_trgm_ops);
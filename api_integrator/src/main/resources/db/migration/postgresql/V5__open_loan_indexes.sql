@@ -0,0 +1,16 @@
+-- Partial indexes for the open-loan access paths on borrowed_books. Open loans (BORROWED or
+-- OVERDUE) are a small share of a table that otherwise holds returned history, so indexing only
+-- them keeps these indexes a fraction of the size of idx_borrowed_book_member / _book / _status_due.
+-- The planner uses a partial index only when the query's WHERE clause implies its predicate, so
+-- the predicates repeat the repository queries: status IN ('BORROWED', 'OVERDUE') for active
+-- borrows and current-borrow counts, status = 'BORROWED' for the overdue sweep and due-date slots
+-- (OverdueService). INCLUDE (id) lets the COUNT(bb) queries and the sweep's id lookup run as
+-- index-only scans.
+-- CONCURRENTLY keeps the table writable while an index is built; see V4 for an interrupted build.
+-- benchmarks/sql/open-loan-indexes.sql compares the plans with and without these indexes.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_borrowed_book_member_open ON borrowed_books (member_id) INCLUDE (id) WHERE status IN ('BORROWED', 'OVERDUE');
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_borrowed_book_book_open ON borrowed_books (book_id) INCLUDE (id) WHERE status IN ('BORROWED', 'OVERDUE');
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_borrowed_book_due_open ON borrowed_books (due_date) INCLUDE (id) WHERE status = 'BORROWED';
@@ -0,0 +1,6 @@
+-- Expression index for the case-insensitive category filter of GET /books
+-- (BookSpecifications.hasCategory compares lower(category)), combined with the availability and
+-- year filters as in idx_book_category_available_year, which keeps serving exact category
+-- lookups. H2 has no expression indexes, so it only exists on PostgreSQL. CONCURRENTLY as in V4.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_lower_category_available_year ON books (lower(category), available_copies, publishing_year);
@@ -0,0 +1,308 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import com.library.repository.BookRepository.CopyCounts;
+import com.library.repository.CirculationBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookAvailabilityServiceTest {
+
+    private static final Long BOOK_ID = 1L;
+
+    private BookRepository bookRepository;
+    private CirculationBatchRepository circulationBatchRepository;
+    private BookAvailabilityService ledger;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        circulationBatchRepository = mock(CirculationBatchRepository.class);
+        ledger = new BookAvailabilityService(bookRepository, circulationBatchRepository,
+                mock(SecondLevelCacheService.class), mock(CategoryFacetService.class));
+        when(bookRepository.findCopyCountsById(anyLong())).thenReturn(Optional.empty());
+        when(circulationBatchRepository.decrementAvailableCopies(anyLong())).thenReturn(1);
+        when(circulationBatchRepository.adjustAvailableCopies(anyLong(), anyInt())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserveTakesOneCopyAndWritesThrough() {
+        stock(BOOK_ID, 3, 2);
+
+        assertTrue(ledger.tryReserve(BOOK_ID));
+
+        assertEquals(1, ledger.getAvailableCopies(BOOK_ID));
+        verify(circulationBatchRepository).decrementAvailableCopies(BOOK_ID);
+    }
+
+    @Test
+    void soldOutTitleIsRejectedFromMemory() {
+        stock(BOOK_ID, 2, 0);
+
+        assertFalse(ledger.tryReserve(BOOK_ID));
+
+        verify(circulationBatchRepository, never()).decrementAvailableCopies(anyLong());
+    }
+
+    @Test
+    void rowThatDisagreesIsReloaded() {
+        stock(BOOK_ID, 2, 1);
+        when(circulationBatchRepository.decrementAvailableCopies(BOOK_ID)).thenReturn(0);
+
+        assertFalse(ledger.tryReserve(BOOK_ID));
+
+        // e.g. changed by another instance
+        stock(BOOK_ID, 4, 3);
+        assertEquals(3, ledger.getAvailableCopies(BOOK_ID));
+    }
+
+    @Test
+    void reserveIsHandedBackOnRollback() {
+        stock(BOOK_ID, 3, 1);
+
+        begin();
+        assertTrue(ledger.tryReserve(BOOK_ID));
+        assertEquals(0, ledger.getAvailableCopies(BOOK_ID));
+        rollback();
+
+        assertEquals(1, ledger.getAvailableCopies(BOOK_ID));
+    }
+
+    @Test
+    void releaseNeverExceedsTotal() {
+        stock(BOOK_ID, 2, 1);
+
+        assertTrue(ledger.release(BOOK_ID));
+        assertFalse(ledger.release(BOOK_ID));
+
+        assertEquals(2, ledger.getAvailableCopies(BOOK_ID));
+    }
+
+    @Test
+    void returnsAreWrittenBehindAsOneDelta() {
+        stock(BOOK_ID, 3, 0);
+        ledger.release(BOOK_ID);
+        ledger.release(BOOK_ID);
+
+        verify(circulationBatchRepository, never()).adjustAvailableCopies(anyLong(), anyInt());
+        ledger.flush();
+        ledger.flush();
+
+        verify(circulationBatchRepository, times(1)).adjustAvailableCopies(BOOK_ID, 2);
+    }
+
+    @Test
+    void failedWriteIsRetried() {
+        stock(BOOK_ID, 3, 0);
+        ledger.release(BOOK_ID);
+        when(circulationBatchRepository.adjustAvailableCopies(BOOK_ID, 1))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(1);
+
+        ledger.flush();
+        ledger.flush();
+
+        verify(circulationBatchRepository, times(2)).adjustAvailableCopies(BOOK_ID, 1);
+    }
+
+    @Test
+    void flushInRolledBackTransactionQueuesTheReturnsAgain() {
+        stock(BOOK_ID, 3, 1);
+        ledger.release(BOOK_ID);
+
+        begin();
+        ledger.flush(BOOK_ID);
+        rollback();
+        ledger.flush();
+
+        verify(circulationBatchRepository, times(2)).adjustAvailableCopies(BOOK_ID, 1);
+    }
+
+    @Test
+    void flushInCommittedTransactionIsNotRepeated() {
+        stock(BOOK_ID, 3, 1);
+        ledger.release(BOOK_ID);
+
+        begin();
+        ledger.flush(BOOK_ID);
+        commit();
+        ledger.flush();
+
+        verify(circulationBatchRepository, times(1)).adjustAvailableCopies(BOOK_ID, 1);
+    }
+
+    @Test
+    void reserveAfterRolledBackFlushStillWritesTheReturn() {
+        stock(BOOK_ID, 3, 1);
+        ledger.release(BOOK_ID);
+
+        begin();
+        assertTrue(ledger.tryReserve(BOOK_ID));
+        rollback();
+
+        assertEquals(2, ledger.getAvailableCopies(BOOK_ID));
+        ledger.flush();
+        verify(circulationBatchRepository, times(2)).adjustAvailableCopies(BOOK_ID, 1);
+    }
+
+    @Test
+    void batchReservesEachPositionAndSkipsSoldOutTitles() {
+        stock(BOOK_ID, 3, 2);
+        stock(2L, 1, 0);
+        when(circulationBatchRepository.decrementAvailableCopies(List.of(BOOK_ID, BOOK_ID)))
+                .thenReturn(new int[]{1, 1});
+
+        boolean[] reserved = ledger.tryReserveAll(List.of(BOOK_ID, 2L, BOOK_ID));
+
+        assertArrayEquals(new boolean[]{true, false, true}, reserved);
+        assertEquals(0, ledger.getAvailableCopies(BOOK_ID));
+    }
+
+    @Test
+    void rolledBackBatchHandsCopiesBackAndQueuesTheReturnsAgain() {
+        stock(BOOK_ID, 3, 1);
+        ledger.release(BOOK_ID);
+        when(circulationBatchRepository.decrementAvailableCopies(List.of(BOOK_ID, BOOK_ID)))
+                .thenReturn(new int[]{1, 1});
+
+        begin();
+        ledger.tryReserveAll(List.of(BOOK_ID, BOOK_ID));
+        rollback();
+
+        assertEquals(2, ledger.getAvailableCopies(BOOK_ID));
+        ledger.flush();
+        verify(circulationBatchRepository, times(2)).adjustAvailableCopies(BOOK_ID, 1);
+    }
+
+    @Test
+    void copyChangeKeepsReturnsThatRacedIt() {
+        stock(BOOK_ID, 3, 1);
+
+        begin();
+        ledger.copiesChanged(BOOK_ID, 2, 2);
+        // Lands between the locked read and the commit; stays queued for the row
+        ledger.release(BOOK_ID);
+        commit();
+
+        assertEquals(4, ledger.getAvailableCopies(BOOK_ID));
+        ledger.flush();
+        verify(circulationBatchRepository).adjustAvailableCopies(BOOK_ID, 1);
+    }
+
+    @Test
+    void copyChangeIsDroppedOnRollback() {
+        stock(BOOK_ID, 3, 1);
+
+        begin();
+        ledger.copiesChanged(BOOK_ID, 2, 2);
+        rollback();
+
+        assertEquals(1, ledger.getAvailableCopies(BOOK_ID));
+    }
+
+    @Test
+    void newBookIsTrackedOnlyOnceCommitted() {
+        Book book = book(9L, 2, 2);
+
+        begin();
+        ledger.register(book);
+        rollback();
+        assertFalse(ledger.isTracked(9L));
+
+        begin();
+        ledger.register(book);
+        commit();
+        assertEquals(2, ledger.getAvailableCopies(9L));
+    }
+
+    @Test
+    void savedCountsKeepReturnsQueuedAfterTheSave() {
+        stock(BOOK_ID, 3, 0);
+
+        begin();
+        ledger.register(book(BOOK_ID, 3, 1));
+        ledger.release(BOOK_ID);
+        commit();
+
+        assertEquals(2, ledger.getAvailableCopies(BOOK_ID));
+    }
+
+    @Test
+    void evictWaitsForCommit() {
+        stock(BOOK_ID, 2, 1);
+        ledger.release(BOOK_ID);
+
+        begin();
+        ledger.evict(BOOK_ID);
+        rollback();
+        assertEquals(2, ledger.getAvailableCopies(BOOK_ID));
+
+        begin();
+        ledger.evict(BOOK_ID);
+        commit();
+        when(bookRepository.findCopyCountsById(BOOK_ID)).thenReturn(Optional.empty());
+        assertFalse(ledger.isTracked(BOOK_ID));
+        ledger.flush();
+        verify(circulationBatchRepository, never()).adjustAvailableCopies(anyLong(), anyInt());
+    }
+
+    private void stock(Long bookId, int total, int available) {
+        CopyCounts counts = mock(CopyCounts.class);
+        when(counts.getId()).thenReturn(bookId);
+        when(counts.getTotalCopies()).thenReturn(total);
+        when(counts.getAvailableCopies()).thenReturn(available);
+        when(bookRepository.findCopyCountsById(bookId)).thenReturn(Optional.of(counts));
+    }
+
+    private static Book book(Long id, int total, int available) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTotalCopies(total);
+        book.setAvailableCopies(available);
+        return book;
+    }
+
+    private static void begin() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static void rollback() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+}
@@ -0,0 +1,212 @@
+package com.library.service;
+
+import com.library.model.Author;
+import com.library.model.Book;
+import com.library.repository.AuthorRepository;
+import com.library.repository.BookRepository;
+import com.library.repository.BookRepository.SearchFields;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookSearchIndexTest {
+
+    private BookRepository bookRepository;
+    private AuthorRepository authorRepository;
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        authorRepository = mock(AuthorRepository.class);
+        when(bookRepository.findAllSearchFields()).thenReturn(List.of(
+                new SearchFields(1L, "The Great Gatsby", "Fiction", "978-0-7432-7356-5", 10L, "F. Scott Fitzgerald"),
+                new SearchFields(2L, "Tender Is the Night", "Fiction", "9780684801544", 10L, "F. Scott Fitzgerald"),
+                new SearchFields(3L, "Cien años de soledad", "Magical Realism", "9780060883287", 11L, "Gabriel García Márquez"),
+                new SearchFields(4L, "Great Expectations", "Classics", "9780141439563", 12L, "Charles Dickens")));
+        index = new BookSearchIndex(bookRepository, authorRepository);
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void everyTokenMustMatch() {
+        assertEquals(List.of(1L), index.search("great gatsby", 10));
+        assertEquals(List.of(), index.search("great night", 10));
+    }
+
+    @Test
+    void titleMatchRanksAboveCategoryMatch() {
+        when(bookRepository.findAllSearchFields()).thenReturn(List.of(
+                new SearchFields(1L, "Classics Revisited", "Essays", null, null, null),
+                new SearchFields(2L, "Bleak House", "Classics", null, null, null)));
+        index.rebuild();
+
+        assertEquals(List.of(1L, 2L), index.search("classics", 10));
+    }
+
+    @Test
+    void exactTermRanksAbovePrefix() {
+        when(bookRepository.findAllSearchFields()).thenReturn(List.of(
+                new SearchFields(1L, "Nightfall", "Fiction", null, null, null),
+                new SearchFields(2L, "Night", "Fiction", null, null, null)));
+        index.rebuild();
+
+        assertEquals(List.of(2L, 1L), index.search("night", 10));
+    }
+
+    @Test
+    void prefixMatches() {
+        assertEquals(List.of(4L), index.search("expect", 10));
+    }
+
+    @Test
+    void typosAreToleratedOnlyWithoutAnExactMatch() {
+        assertEquals(List.of(1L), index.search("gatbsy", 10));
+        assertEquals(List.of(3L), index.search("soledda", 10));
+        // Too short for typos: three letters are one edit away from too many terms
+        assertEquals(List.of(), index.search("gta", 10));
+    }
+
+    @Test
+    void diacriticsAndCaseAreFolded() {
+        assertEquals(List.of(3L), index.search("GARCIA marquez", 10));
+        assertEquals(List.of(3L), index.search("años", 10));
+    }
+
+    @Test
+    void isbnMatchesWithOrWithoutSeparators() {
+        assertEquals(List.of(1L), index.search("9780743273565", 10));
+        assertEquals(List.of(1L), index.search("978-0-7432-7356-5", 10));
+    }
+
+    @Test
+    void limitKeepsTheBestMatches() {
+        assertEquals(List.of(1L), index.search("fitzgerald gatsby", 1));
+        assertEquals(1, index.search("fitzgerald", 1).size());
+        assertEquals(List.of(1L, 2L), index.search("fitzgerald", 2));
+    }
+
+    @Test
+    void savedBookIsIndexedOnlyOnceCommitted() {
+        Book book = book(5L, "Beautiful and Damned", 10L, "F. Scott Fitzgerald");
+
+        begin();
+        index.index(book);
+        assertEquals(List.of(), index.search("damned", 10));
+        rollback();
+        assertEquals(List.of(), index.search("damned", 10));
+
+        begin();
+        index.index(book);
+        commit();
+        assertEquals(List.of(5L), index.search("damned", 10));
+    }
+
+    @Test
+    void reindexReplacesTheOldTerms() {
+        index.index(book(1L, "Trimalchio", 10L, "F. Scott Fitzgerald"));
+
+        assertEquals(List.of(1L), index.search("trimalchio", 10));
+        assertEquals(List.of(), index.search("gatsby", 10));
+    }
+
+    @Test
+    void unknownAuthorNameIsLoaded() {
+        Author author = author(13L, "Toni Morrison");
+        when(authorRepository.findById(13L)).thenReturn(Optional.of(author));
+        Book book = book(6L, "Beloved", 13L, null);
+
+        index.index(book);
+
+        assertEquals(List.of(6L), index.search("morrison", 10));
+    }
+
+    @Test
+    void removedBookIsNotFound() {
+        index.remove(1L);
+
+        assertEquals(List.of(), index.search("gatsby", 10));
+        assertEquals(List.of(2L), index.search("fitzgerald", 10));
+    }
+
+    @Test
+    void renamedAuthorIsSearchableUnderTheNewName() {
+        index.updateAuthor(author(12L, "Boz"));
+
+        assertEquals(List.of(4L), index.search("boz", 10));
+        assertEquals(List.of(), index.search("dickens", 10));
+    }
+
+    @Test
+    void removedAuthorTakesTheBooks() {
+        index.removeAuthor(10L);
+
+        assertEquals(List.of(), index.search("fitzgerald", 10));
+        assertEquals(List.of(4L), index.search("great", 10));
+    }
+
+    @Test
+    void editDistanceCountsTranspositionsAsOneEdit() {
+        assertEquals(1, BookSearchIndex.editDistance("gatbsy", "gatsby", 2));
+        assertEquals(2, BookSearchIndex.editDistance("kitten", "sittin", 2));
+        assertEquals(3, BookSearchIndex.editDistance("abcdef", "uvwxyz", 2));
+    }
+
+    @Test
+    void tokenizeSplitsOnPunctuation() {
+        assertEquals(List.of("f", "scott", "fitzgerald"), BookSearchIndex.tokenize("F. Scott-Fitzgerald"));
+        assertTrue(BookSearchIndex.tokenize("  ").isEmpty());
+        assertEquals(List.of("zoe"), BookSearchIndex.tokenize("Zoë"));
+    }
+
+    private static Book book(Long id, String title, Long authorId, String authorName) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setCategory("Fiction");
+        book.setAuthor(author(authorId, authorName));
+        return book;
+    }
+
+    private static Author author(Long id, String name) {
+        Author author = new Author();
+        author.setId(id);
+        author.setName(name);
+        return author;
+    }
+
+    private static void begin() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static void rollback() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+}
@@ -0,0 +1,141 @@
+package com.library.service;
+
+import com.library.LibraryManagementApplication;
+import com.library.dto.CursorPage;
+import com.library.model.Author;
+import com.library.repository.AuthorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the keyset queries against H2 in PostgreSQL mode with the Flyway schema. The nested
+ * configuration keeps the slice to JPA: the application class scans every component.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keyset;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class KeysetPagerTest {
+
+    @Configuration
+    @AutoConfigurationPackage(basePackageClasses = LibraryManagementApplication.class)
+    static class JpaOnly {
+    }
+
+    private static final Set<String> SORTS = Set.of("id", "name");
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private List<Author> authors;
+
+    @BeforeEach
+    void setUp() {
+        authorRepository.deleteAll();
+        List<Author> created = new ArrayList<>();
+        // Repeated names, so the id has to break ties across page boundaries
+        for (String name : List.of("Austen", "Borges", "Austen", "Calvino", "Borges", "Eco", "Austen", "Dickens")) {
+            Author author = new Author();
+            author.setName(name);
+            created.add(author);
+        }
+        authors = authorRepository.saveAll(created);
+    }
+
+    @Test
+    void pagesCoverEveryRowOnceInIdOrder() {
+        List<Long> expected = authors.stream().map(Author::getId).sorted().toList();
+
+        assertEquals(expected, ids(readAll(Sort.by("id"), 3)));
+    }
+
+    @Test
+    void pagesFollowTheSortWithIdBreakingTies() {
+        Comparator<Author> byName = Comparator.comparing(Author::getName).thenComparing(Author::getId);
+        List<Long> expected = authors.stream().sorted(byName).map(Author::getId).toList();
+
+        assertEquals(expected, ids(readAll(Sort.by("name"), 2)));
+    }
+
+    @Test
+    void descendingOrderIsKeptByTheCursor() {
+        Comparator<Author> byName = Comparator.comparing(Author::getName).thenComparing(Author::getId);
+        List<Long> expected = authors.stream().sorted(byName.reversed()).map(Author::getId).toList();
+
+        assertEquals(expected, ids(readAll(Sort.by(Sort.Direction.DESC, "name"), 3)));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Author> page = KeysetPager.scroll(authorRepository, Author.class, null, null, authors.size(),
+                Sort.by("id"), SORTS);
+
+        assertEquals(authors.size(), page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void laterPagesIgnoreTheRequestedSort() {
+        CursorPage<Author> first = KeysetPager.scroll(authorRepository, Author.class, null, null, 3,
+                Sort.by("name"), SORTS);
+        assertNotNull(first.getNextCursor());
+
+        CursorPage<Author> second = KeysetPager.scroll(authorRepository, Author.class, null, first.getNextCursor(), 3,
+                Sort.by(Sort.Direction.DESC, "id"), SORTS);
+
+        Comparator<Author> byName = Comparator.comparing(Author::getName).thenComparing(Author::getId);
+        List<Long> expected = authors.stream().sorted(byName).map(Author::getId).toList().subList(3, 6);
+        assertEquals(expected, ids(second.getContent()));
+    }
+
+    @Test
+    void unsortableOrGarbledCursorsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetPager.scroll(authorRepository, Author.class, null,
+                null, 3, Sort.by("nationality"), SORTS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPager.scroll(authorRepository, Author.class, null,
+                "not a cursor", 3, Sort.unsorted(), SORTS));
+        String truncated = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[]{0, 4, 'n', 'a'});
+        assertThrows(IllegalArgumentException.class, () -> KeysetPager.scroll(authorRepository, Author.class, null,
+                truncated, 3, Sort.unsorted(), SORTS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPager.scroll(authorRepository, Author.class, null,
+                null, 0, Sort.unsorted(), SORTS));
+    }
+
+    private List<Author> readAll(Sort sort, int size) {
+        List<Author> all = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<Author> page = KeysetPager.scroll(authorRepository, Author.class, null, after, size, sort, SORTS);
+            all.addAll(page.getContent());
+            after = page.getNextCursor();
+        } while (after != null);
+        return all;
+    }
+
+    private static List<Long> ids(List<Author> authors) {
+        return authors.stream().map(Author::getId).toList();
+    }
+}
@@ -0,0 +1,77 @@
+package com.library.benchmark;
+
+import com.library.config.ApiKeyAuthFilter;
+import com.library.config.StrictApiKeyFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One request through the API key filters: public-path matching for Swagger and the root, and
+ * key lookup plus authentication for an API path. Needs no application context. Rejected
+ * requests are left out, since each one logs a warning.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiKeyFilterBenchmark {
+
+    private static final String HEADER = "X-API-KEY";
+    private static final Map<String, String> API_KEYS = Map.of(
+            "admin-api-key-123", "ADMIN",
+            "books-api-key-456", "BOOKS",
+            "authors-api-key-789", "AUTHORS",
+            "borrowed-books-api-key-101", "BORROWED_BOOKS");
+
+    @Param({"strict", "default"})
+    public String filter;
+
+    @Param({"/", "/swagger-ui/index.html", "/books/search", "/borrowed-books/member/42"})
+    public String path;
+
+    private OncePerRequestFilter apiKeyFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        apiKeyFilter = filter.equals("strict")
+                ? new StrictApiKeyFilter(HEADER, API_KEYS)
+                : new ApiKeyAuthFilter(HEADER, API_KEYS);
+        request = new MockHttpServletRequest("GET", path);
+        request.addHeader(HEADER, path.startsWith("/books") ? "books-api-key-456" : "borrowed-books-api-key-101");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void doFilter(Blackhole blackhole) throws ServletException, IOException {
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            apiKeyFilter.doFilter(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import com.library.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a catalog search: {@link BookService#findBySearchTerm} through the search index,
+ * and the repository's LIKE query it falls back to before the index is built. Terms range from a
+ * word in many titles to an author, an ISBN prefix and a term with no match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookSearchBenchmark {
+
+    @Param({"river", "garden storm", "Tolkien", "978-00001", "zeppelin"})
+    public String term;
+
+    private final Pageable firstPage = PageRequest.of(0, 20);
+    private BookService bookService;
+    private BookRepository bookRepository;
+
+    @Setup
+    public void setUp(LibraryState library) {
+        bookService = library.bean(BookService.class);
+        bookRepository = library.bean(BookRepository.class);
+    }
+
+    @Benchmark
+    public Page<Book> searchIndex() {
+        return bookService.findBySearchTerm(term, firstPage);
+    }
+
+    @Benchmark
+    public Page<Book> likeQuery() {
+        return bookRepository.findBySearchTerm(term, firstPage);
+    }
+}
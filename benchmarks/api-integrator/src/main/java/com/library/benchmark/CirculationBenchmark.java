@@ -0,0 +1,70 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.model.BorrowedBook;
+import com.library.model.Member;
+import com.library.service.BorrowedBookService;
+import com.library.service.MemberService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout and return through {@link BorrowedBookService}, and the {@link MemberService#canBorrow}
+ * check made before a checkout. Each thread walks the seeded books and members from its own
+ * offset; every checkout is returned in the same operation, so availability stays level however
+ * long the run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CirculationBenchmark {
+
+    private BorrowedBookService borrowedBookService;
+    private MemberService memberService;
+    private long[] bookIds;
+    private long[] memberIds;
+    private int next;
+
+    @Setup
+    public void setUp(LibraryState library, ThreadParams thread) {
+        borrowedBookService = library.bean(BorrowedBookService.class);
+        memberService = library.bean(MemberService.class);
+        bookIds = library.bookIds;
+        memberIds = library.memberIds;
+        next = thread.getThreadIndex() * 7919;
+    }
+
+    @Benchmark
+    public Optional<BorrowedBook> borrowAndReturn() {
+        int i = next++;
+        LocalDate today = LocalDate.now();
+        Book book = new Book();
+        book.setId(bookIds[Math.floorMod(i, bookIds.length)]);
+        Member member = new Member();
+        member.setId(memberIds[Math.floorMod(i, memberIds.length)]);
+
+        BorrowedBook loan = borrowedBookService.borrowBook(new BorrowedBook(member, book, today, today.plusDays(14)));
+        return borrowedBookService.returnBook(loan.getId(), today);
+    }
+
+    @Benchmark
+    public boolean canBorrow() {
+        return memberService.canBorrow(memberIds[Math.floorMod(next++, memberIds.length)]);
+    }
+}
@@ -0,0 +1,182 @@
+package com.library.benchmark;
+
+import com.library.LibraryManagementApplication;
+import com.library.model.Book;
+import com.library.model.BorrowedBook;
+import com.library.model.Member;
+import com.library.service.BorrowedBookService;
+import com.library.service.CatalogImportService;
+import com.library.service.CatalogImportService.Format;
+import com.library.service.MemberService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A running API Integrator with a seeded catalog, shared by every thread of a benchmark.
+ * <p>
+ * Runs on an in-memory H2 database in PostgreSQL mode unless {@code bench.db.url} (with
+ * {@code bench.db.username} and {@code bench.db.password}) points at a PostgreSQL database, in
+ * which case the Flyway migrations run there as well and the seeded data is kept between forks. Books are loaded through the catalog import,
+ * so the search index, category facets and availability ledger are built as in production;
+ * members are saved through {@link MemberService} and every fourth one borrows two books.
+ * Request logging is turned down to WARN so it does not dominate the measurements.
+ */
+@State(Scope.Benchmark)
+public class LibraryState {
+
+    static final String[] WORDS = {
+        "shadow", "river", "garden", "empire", "winter", "silver", "secret", "island", "night",
+        "history", "ocean", "mountain", "kingdom", "journey", "letters", "machine", "forest",
+        "memory", "storm", "city", "stars", "glass", "harbor", "fire", "light", "desert"
+    };
+    static final String[] CATEGORIES = {
+        "Fiction", "Fantasy", "Science Fiction", "Mystery", "History", "Biography", "Science",
+        "Poetry", "Travel", "Philosophy", "Romance", "Children"
+    };
+    static final String[] SURNAMES = {
+        "Austen", "Orwell", "Tolkien", "Woolf", "Dickens", "Hemingway", "Morrison", "Calvino",
+        "Borges", "Murakami", "Achebe", "Atwood", "Eco", "Mann", "Tolstoy", "Le Guin"
+    };
+
+    @Param("20000")
+    public int books;
+
+    @Param("2000")
+    public int members;
+
+    ConfigurableApplicationContext context;
+    long[] bookIds;
+    long[] memberIds;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        // Passed as command line arguments, which take precedence over application.yml
+        String[] args = properties().entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        context = new SpringApplicationBuilder(LibraryManagementApplication.class).run(args);
+
+        // A PostgreSQL database outlives the fork; it is seeded by the first one and reused
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Integer seeded = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM members WHERE email = 'bench.member0@example.com'", Integer.class);
+        if (seeded == null || seeded == 0) {
+            seedBooks();
+            seedMembers();
+        }
+
+        // Every benchmark checkout is returned at once, so one free copy per title is enough
+        bookIds = ids(jdbcTemplate.queryForList("SELECT id FROM books WHERE available_copies > 0 ORDER BY id", Long.class));
+        memberIds = ids(jdbcTemplate.queryForList("SELECT id FROM members ORDER BY id", Long.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private static Map<String, Object> properties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.library", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.put("spring.security.debug", "false");
+
+        String url = System.getProperty("bench.db.url");
+        if (url == null) {
+            properties.put("spring.datasource.url",
+                    "jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        } else {
+            properties.put("spring.datasource.url", url);
+            properties.put("spring.datasource.username", System.getProperty("bench.db.username", "postgres"));
+            properties.put("spring.datasource.password", System.getProperty("bench.db.password", "postgres"));
+        }
+        return properties;
+    }
+
+    /**
+     * Imports {@link #books} generated books as one CSV; titles are word pairs so searches match
+     * a realistic share of the catalog.
+     */
+    private void seedBooks() throws IOException {
+        StringBuilder csv = new StringBuilder("title,isbn,category,publishing_year,description,total_copies,author\n");
+        for (int i = 0; i < books; i++) {
+            String first = WORDS[i % WORDS.length];
+            String second = WORDS[(i / WORDS.length) % WORDS.length];
+            csv.append("The ").append(capitalize(first)).append(" of the ").append(capitalize(second))
+                    .append(' ').append(i).append(',')
+                    .append(String.format("978-%09d", i)).append(',')
+                    .append(CATEGORIES[i % CATEGORIES.length]).append(',')
+                    .append(1900 + i % 120).append(',')
+                    .append("A novel about the ").append(first).append(" and the ").append(second).append(',')
+                    .append(1 + i % 5).append(',')
+                    .append(author(i)).append('\n');
+        }
+        context.getBean(CatalogImportService.class).importBooks(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), Format.CSV);
+    }
+
+    private void seedMembers() {
+        MemberService memberService = context.getBean(MemberService.class);
+        BorrowedBookService borrowedBookService = context.getBean(BorrowedBookService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Long> available = jdbcTemplate.queryForList(
+                "SELECT id FROM books WHERE available_copies > 2 ORDER BY id", Long.class);
+
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < members; i++) {
+            Member member = memberService.save(new Member(
+                    "Bench Member " + i, "bench.member" + i + "@example.com", "555-" + i, i + " Library Street"));
+            if (i % 4 == 0 && !available.isEmpty()) {
+                for (int j = 0; j < 2; j++) {
+                    Book book = new Book();
+                    book.setId(available.get((i + j) % available.size()));
+                    borrowedBookService.borrowBook(new BorrowedBook(member, book, today, today.plusDays(14)));
+                }
+            }
+        }
+    }
+
+    private static String author(int i) {
+        int n = i % 500;
+        return (char) ('A' + n % 26) + ". " + SURNAMES[n % SURNAMES.length] + " " + n;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static long[] ids(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
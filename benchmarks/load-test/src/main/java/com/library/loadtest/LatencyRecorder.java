@@ -0,0 +1,101 @@
+package com.library.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and outcome counts per endpoint. Latencies are recorded in microseconds from
+ * the time a request was scheduled to start, not from when it was sent, so requests held back by
+ * a saturated system count the wait (no coordinated omission).
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Records one request. Responses with status 4xx are counted as rejected (e.g. validation
+     * failures), 5xx and failed requests as errors.
+     */
+    void record(String endpoint, long scheduledNanos, long completedNanos, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        long micros = Math.min(Math.max(0, (completedNanos - scheduledNanos) / 1000), HIGHEST_TRACKABLE_MICROS);
+        stats.latency.recordValue(micros);
+        if (status >= 400 && status < 500) {
+            stats.rejected.increment();
+        } else if (status < 200 || status >= 500) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Prints one row per endpoint and a total row, latencies in milliseconds.
+     */
+    void print(PrintStream out, double seconds) {
+        String header = String.format("%-36s %9s %8s %8s %8s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "req/s", "rejected", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        out.println(header);
+        out.println("-".repeat(header.length()));
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long rejected = 0;
+        long errors = 0;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            Histogram latency = endpoint.latency.copy();
+            total.add(latency);
+            rejected += endpoint.rejected.sum();
+            errors += endpoint.errors.sum();
+            out.println(row(entry.getKey(), latency, endpoint.rejected.sum(), endpoint.errors.sum(), seconds));
+        }
+        out.println("-".repeat(header.length()));
+        out.println(row("all", total, rejected, errors, seconds));
+    }
+
+    /**
+     * Writes each endpoint's percentile distribution ({@code .hgrm}, in milliseconds) for plotting
+     * with HdrHistogram's tools.
+     */
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            String file = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(file)))) {
+                entry.getValue().latency.copy().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static String row(String name, Histogram latency, long rejected, long errors, double seconds) {
+        long count = latency.getTotalCount();
+        return String.format("%-36s %9d %8.1f %7.2f%% %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, count, count / seconds, percent(rejected, count), percent(errors, count),
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()));
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.library.loadtest;
+
+import com.library.loadtest.Seeder.Dataset;
+
+import java.util.Arrays;
+
+/**
+ * End-to-end load test: seeds a library through the Main API, runs the synthetic workload against
+ * it and prints latency percentiles and error rates per endpoint. Everything goes through
+ * main_api to the API Integrator, so both services and the database are measured together.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        LibraryClient client = new LibraryClient(options.baseUrl, options.timeout);
+        Seeder seeder = new Seeder(client, options);
+        System.out.printf("Target %s, random seed %d%n", options.baseUrl, options.randomSeed);
+        Dataset dataset = options.seed ? seeder.seed() : seeder.load();
+
+        Workload workload = new Workload(client, options, dataset);
+        LatencyRecorder recorder = workload.run();
+        System.out.printf("Returned %d loans left open by the run%n", workload.returnOpenLoans());
+
+        System.out.println();
+        recorder.print(System.out, options.duration.toMillis() / 1000.0);
+        if (options.histogramDir != null) {
+            recorder.writeHistograms(options.histogramDir);
+            System.out.println("Histograms written to " + options.histogramDir.toAbsolutePath());
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.library.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}. Every option has a default, so a plain
+ * {@code java -jar load-test.jar} seeds a small library and runs one minute against a Main API on
+ * localhost.
+ */
+final class LoadTestOptions {
+
+    static final String USAGE = """
+            Usage: java -jar load-test.jar [--option=value ...]
+
+              --base-url=URL           Main API base URL (default http://localhost:8090/api)
+              --seed=true|false        create the dataset first; false reuses existing books and members
+              --authors=N              authors to create (default 100)
+              --books=N                books to create, or to reuse with --seed=false (default 2000)
+              --members=N              members to create, or to reuse with --seed=false (default 500)
+              --overdue-loans=N        backdated loans created while seeding (default 50)
+              --seed-concurrency=N     parallel requests while seeding (default 16)
+              --rate=N                 requests started per second (default 50)
+              --duration=TIME          measured time, e.g. 90s or 5m (default 60s)
+              --warmup=TIME            unmeasured time before it (default 10s)
+              --max-in-flight=N        outstanding requests before the schedule waits (default 512)
+              --timeout=TIME           per-request timeout (default 10s)
+              --mix=NAME:W,...         operation weights (default browse:40,search:25,checkout:13,return:13,overdue:9)
+              --histogram-dir=DIR      also write one .hgrm percentile file per endpoint
+              --random-seed=N          seed of the workload's random choices (default: time based)
+              --help                   print this text
+            """;
+
+    String baseUrl = "http://localhost:8090/api";
+    boolean seed = true;
+    int authors = 100;
+    int books = 2000;
+    int members = 500;
+    int overdueLoans = 50;
+    int seedConcurrency = 16;
+    double rate = 50;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    int maxInFlight = 512;
+    Duration timeout = Duration.ofSeconds(10);
+    Map<Operation, Integer> mix = parseMix("browse:40,search:25,checkout:13,return:13,overdue:9");
+    Path histogramDir;
+    long randomSeed = System.nanoTime();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "base-url" -> options.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "seed" -> options.seed = Boolean.parseBoolean(value);
+                case "authors" -> options.authors = positive(name, value);
+                case "books" -> options.books = positive(name, value);
+                case "members" -> options.members = positive(name, value);
+                case "overdue-loans" -> options.overdueLoans = Integer.parseInt(value);
+                case "seed-concurrency" -> options.seedConcurrency = positive(name, value);
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "duration" -> options.duration = parseDuration(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "max-in-flight" -> options.maxInFlight = positive(name, value);
+                case "timeout" -> options.timeout = parseDuration(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "histogram-dir" -> options.histogramDir = Path.of(value);
+                case "random-seed" -> options.randomSeed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("--rate must be greater than 0");
+        }
+        return options;
+    }
+
+    /**
+     * Parses {@code 250ms}, {@code 30s}, {@code 5m} or an ISO-8601 duration such as {@code PT1H}.
+     */
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.startsWith("pt")) {
+            return Duration.parse(value.trim());
+        }
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected name:weight in --mix but got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights in --mix must not be negative: " + entry);
+            }
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return mix;
+    }
+
+    private static int positive(String name, String value) {
+        int number = Integer.parseInt(value);
+        if (number <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be greater than 0");
+        }
+        return number;
+    }
+}
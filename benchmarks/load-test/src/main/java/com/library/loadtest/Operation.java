@@ -0,0 +1,18 @@
+package com.library.loadtest;
+
+/**
+ * The kinds of request in the workload mix. Each picks one of a few endpoints, see
+ * {@link Workload}.
+ */
+enum Operation {
+    /** Catalog pages, book details and category listings. */
+    BROWSE,
+    /** Full-text book search. */
+    SEARCH,
+    /** Borrowing a book. */
+    CHECKOUT,
+    /** Returning a loan made earlier in the run; a checkout while none is open. */
+    RETURN,
+    /** Overdue loans and members with overdue loans. */
+    OVERDUE
+}
@@ -0,0 +1,260 @@
+package com.library.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates the library the workload runs against through the Main API's create endpoints, which
+ * call the same services as the API Integrator's DataInitializer (AuthorService, BookService,
+ * MemberService and BorrowedBookService). ISBNs and emails carry a per-run tag, so repeated runs
+ * against the same database do not collide. With {@code --seed=false} existing books and members
+ * are read back instead.
+ */
+final class Seeder {
+
+    /**
+     * Ids and vocabulary the workload draws its requests from.
+     */
+    record Dataset(long[] bookIds, long[] memberIds, List<String> categories, List<String> searchTerms) {}
+
+    private static final String[] WORDS = {
+        "shadow", "river", "garden", "empire", "winter", "silver", "secret", "island", "night",
+        "history", "ocean", "mountain", "kingdom", "journey", "letters", "machine", "forest",
+        "memory", "storm", "city", "stars", "glass", "harbor", "fire", "light", "desert"
+    };
+    private static final String[] CATEGORIES = {
+        "Fiction", "Fantasy", "Science Fiction", "Mystery", "History", "Biography", "Science",
+        "Poetry", "Travel", "Philosophy", "Romance", "Children"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Ada", "Bruno", "Chiara", "Dmitri", "Elif", "Farah", "Goran", "Hana", "Ivo", "Jun",
+        "Kemal", "Lena", "Mateo", "Nia", "Oskar", "Priya", "Rui", "Sofia", "Tomas", "Yara"
+    };
+    private static final String[] LAST_NAMES = {
+        "Austen", "Orwell", "Tolkien", "Woolf", "Dickens", "Hemingway", "Morrison", "Calvino",
+        "Borges", "Murakami", "Achebe", "Atwood", "Eco", "Mann", "Tolstoy", "Le Guin"
+    };
+    private static final String[] NATIONALITIES = {
+        "British", "American", "Italian", "Argentine", "Japanese", "Nigerian", "Canadian", "German"
+    };
+    private static final int PAGE_SIZE = 100;
+
+    private final LibraryClient client;
+    private final LoadTestOptions options;
+    private final Random random;
+    private final String tag = Long.toString(System.currentTimeMillis(), 36);
+
+    Seeder(LibraryClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+        this.random = new Random(options.randomSeed);
+    }
+
+    Dataset seed() throws Exception {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(options.seedConcurrency);
+        try {
+            List<Long> authorIds = createAll(executor, "authors", options.authors, this::author);
+            List<Long> bookIds = createAll(executor, "books", options.books,
+                    i -> book(i, authorIds.get(i % authorIds.size())));
+            List<Long> memberIds = createAll(executor, "members", options.members, this::member);
+            List<Long> loanIds = createAll(executor, "borrowed-books", options.overdueLoans,
+                    i -> overdueLoan(i, bookIds, memberIds));
+            System.out.printf("Seeded %d authors, %d books, %d members and %d overdue loans in %d s%n",
+                    authorIds.size(), bookIds.size(), memberIds.size(), loanIds.size(),
+                    (System.nanoTime() - start) / 1_000_000_000);
+
+            List<String> titles = new ArrayList<>();
+            for (int i = 0; i < Math.min(options.books, 1000); i++) {
+                titles.add(title(i));
+            }
+            return new Dataset(toArray(bookIds), toArray(memberIds), List.of(CATEGORIES), searchTerms(titles));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads back up to {@code --books} books and {@code --members} members from an existing library.
+     */
+    Dataset load() throws IOException, InterruptedException {
+        List<Long> bookIds = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        for (int page = 0; bookIds.size() < options.books; page++) {
+            JsonNode content = page("/books?page=" + page + "&size=" + PAGE_SIZE + "&sortBy=id");
+            if (content.isEmpty()) {
+                break;
+            }
+            for (JsonNode book : content) {
+                bookIds.add(book.get("id").asLong());
+                titles.add(book.path("title").asText(""));
+            }
+        }
+        List<Long> memberIds = new ArrayList<>();
+        for (int page = 0; memberIds.size() < options.members; page++) {
+            JsonNode content = page("/members?page=" + page + "&size=" + PAGE_SIZE + "&sortBy=id");
+            if (content.isEmpty()) {
+                break;
+            }
+            for (JsonNode member : content) {
+                memberIds.add(member.get("id").asLong());
+            }
+        }
+        List<String> categories = new ArrayList<>();
+        client.json(expectSuccess("/books/categories", client.get("/books/categories")))
+                .forEach(category -> categories.add(category.asText()));
+        if (bookIds.isEmpty() || memberIds.isEmpty()) {
+            throw new IllegalStateException("No books or members to reuse; run with --seed=true first");
+        }
+        System.out.printf("Reusing %d books and %d members%n", bookIds.size(), memberIds.size());
+        return new Dataset(toArray(bookIds), toArray(memberIds), categories, searchTerms(titles));
+    }
+
+    private interface Payload {
+        Map<String, Object> create(int index);
+    }
+
+    /**
+     * POSTs {@code count} payloads with {@code --seed-concurrency} requests in flight and returns
+     * the ids of those created. Failures are reported and skipped; none created is fatal.
+     */
+    private List<Long> createAll(ExecutorService executor, String resource, int count, Payload payload)
+            throws InterruptedException {
+        List<Callable<Long>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> body = payload.create(i);
+            tasks.add(() -> {
+                LibraryClient.Response response = client.post("/" + resource, body);
+                if (!response.isSuccess()) {
+                    throw new IllegalStateException("HTTP " + response.status() + ": "
+                            + new String(response.body(), StandardCharsets.UTF_8));
+                }
+                return client.json(response).get("id").asLong();
+            });
+        }
+
+        List<Long> ids = new ArrayList<>(count);
+        String firstError = null;
+        for (Future<Long> future : executor.invokeAll(tasks)) {
+            try {
+                ids.add(future.get());
+            } catch (ExecutionException e) {
+                if (firstError == null) {
+                    firstError = e.getCause().getMessage();
+                }
+            }
+        }
+        if (ids.size() < count) {
+            System.out.printf("Could not create %d of %d %s, e.g. %s%n", count - ids.size(), count, resource, firstError);
+        }
+        if (ids.isEmpty() && count > 0) {
+            throw new IllegalStateException("No " + resource + " could be created");
+        }
+        return ids;
+    }
+
+    private Map<String, Object> author(int i) {
+        Map<String, Object> author = new LinkedHashMap<>();
+        author.put("name", FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length]
+                + (i >= FIRST_NAMES.length * LAST_NAMES.length ? " " + i : ""));
+        author.put("biography", "Writes about " + WORDS[i % WORDS.length] + " and " + WORDS[(i * 7) % WORDS.length]);
+        author.put("nationality", NATIONALITIES[i % NATIONALITIES.length]);
+        author.put("birthYear", 1850 + (i * 37) % 150);
+        return author;
+    }
+
+    private Map<String, Object> book(int i, long authorId) {
+        int copies = 1 + random.nextInt(5);
+        Map<String, Object> book = new LinkedHashMap<>();
+        book.put("title", title(i));
+        book.put("isbn", "LT" + tag + "-" + i);
+        book.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        book.put("publishingYear", 1900 + random.nextInt(125));
+        book.put("description", "A story of the " + WORDS[random.nextInt(WORDS.length)] + " and the "
+                + WORDS[random.nextInt(WORDS.length)]);
+        book.put("totalCopies", copies);
+        book.put("availableCopies", copies);
+        book.put("author", Map.of("id", authorId));
+        return book;
+    }
+
+    private Map<String, Object> member(int i) {
+        Map<String, Object> member = new LinkedHashMap<>();
+        member.put("name", FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        member.put("email", "load." + tag + "." + i + "@example.com");
+        member.put("phone", "555-" + (1000 + i % 9000));
+        member.put("address", (i + 1) + " " + capitalize(WORDS[i % WORDS.length]) + " Street");
+        return member;
+    }
+
+    /**
+     * A loan borrowed 20 to 50 days ago and due two weeks later, so it is overdue on creation.
+     */
+    private Map<String, Object> overdueLoan(int i, List<Long> bookIds, List<Long> memberIds) {
+        LocalDate borrowed = LocalDate.now().minusDays(20 + random.nextInt(31));
+        Map<String, Object> loan = new LinkedHashMap<>();
+        loan.put("book", Map.of("id", bookIds.get(random.nextInt(bookIds.size()))));
+        loan.put("member", Map.of("id", memberIds.get(i % memberIds.size())));
+        loan.put("borrowDate", borrowed.toString());
+        loan.put("dueDate", borrowed.plusDays(14).toString());
+        return loan;
+    }
+
+    private static String title(int i) {
+        return "The " + capitalize(WORDS[i % WORDS.length]) + " of the "
+                + capitalize(WORDS[(i / WORDS.length) % WORDS.length]);
+    }
+
+    /**
+     * Distinct title words of four letters or more, lower-cased.
+     */
+    private static List<String> searchTerms(List<String> titles) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String title : titles) {
+            for (String word : title.split("\\W+")) {
+                if (word.length() >= 4) {
+                    terms.add(word.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        if (terms.isEmpty()) {
+            terms.add("book");
+        }
+        return List.copyOf(terms);
+    }
+
+    private JsonNode page(String path) throws IOException, InterruptedException {
+        return client.json(expectSuccess(path, client.get(path))).path("content");
+    }
+
+    private static LibraryClient.Response expectSuccess(String path, LibraryClient.Response response) {
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("GET " + path + " returned HTTP " + response.status());
+        }
+        return response;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
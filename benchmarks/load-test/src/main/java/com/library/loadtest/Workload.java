@@ -0,0 +1,249 @@
+package com.library.loadtest;
+
+import com.library.loadtest.Seeder.Dataset;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the operation mix at a fixed arrival rate (an open workload): request {@code n} is
+ * scheduled at {@code n / rate} seconds whether or not earlier ones have finished, and each runs
+ * on its own virtual thread. Only {@code --max-in-flight} requests may be outstanding; beyond that
+ * the schedule waits, and the wait shows up in the latencies. The run ends on time even when the
+ * schedule has fallen behind; requests still unsent then are reported instead of sent late.
+ * Requests sent during the warmup are not recorded.
+ */
+final class Workload {
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * One request: the endpoint it is reported under and what to send.
+     */
+    private record Call(String endpoint, String method, String path, Object body, boolean opensLoan) {}
+
+    private final LibraryClient client;
+    private final LoadTestOptions options;
+    private final Dataset dataset;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final SplittableRandom random;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    // Loans made by checkouts in this run, returned in the order they were made
+    private final Queue<Long> openLoans = new ConcurrentLinkedQueue<>();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    Workload(LibraryClient client, LoadTestOptions options, Dataset dataset) {
+        this.client = client;
+        this.options = options;
+        this.dataset = dataset;
+        this.random = new SplittableRandom(options.randomSeed);
+        this.operations = options.mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += options.mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    LatencyRecorder run() throws InterruptedException {
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+        long nextProgress = start + PROGRESS_INTERVAL_NANOS;
+        long scheduled = 0;
+
+        System.out.printf("Running %.1f requests/s for %d s after %d s of warmup%n",
+                options.rate, options.duration.toSeconds(), options.warmup.toSeconds());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; ; n++) {
+                long at = start + (long) (n * 1_000_000_000L / options.rate);
+                if (at >= end || System.nanoTime() >= end) {
+                    break;
+                }
+                parkUntil(at);
+                Call call = nextCall();
+                inFlight.acquire();
+                // Behind schedule, "at" can trail the clock by more than the warmup; what was sent
+                // after it is still measured
+                boolean measured = Math.max(at, System.nanoTime()) >= measureFrom;
+                executor.execute(() -> {
+                    try {
+                        execute(call, at, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                scheduled++;
+
+                long now = System.nanoTime();
+                if (now >= nextProgress) {
+                    System.out.printf("[%4d s] scheduled %d, completed %d, failed %d, in flight %d%n",
+                            TimeUnit.NANOSECONDS.toSeconds(now - start), scheduled, completed.get(), failed.get(),
+                            options.maxInFlight - inFlight.availablePermits());
+                    nextProgress += PROGRESS_INTERVAL_NANOS;
+                }
+            }
+            // Closing the executor waits for the outstanding requests, each bounded by --timeout
+        }
+        long unsent = (long) Math.ceil((end - start) * options.rate / 1_000_000_000L) - scheduled;
+        if (unsent > 0) {
+            System.out.printf("The schedule fell behind: %d requests were not sent; the target is saturated%n", unsent);
+        }
+        return recorder;
+    }
+
+    /**
+     * Returns the loans still open after the run, unmeasured, so the next run against the same
+     * data finds the same copies available. Returns how many were returned.
+     */
+    int returnOpenLoans() throws InterruptedException {
+        Semaphore inFlight = new Semaphore(16);
+        AtomicLong returned = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Long loanId;
+            while ((loanId = openLoans.poll()) != null) {
+                String path = "/borrowed-books/" + loanId + "/return";
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        if (client.put(path, null).isSuccess()) {
+                            returned.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        // Left open; a later sweep marks it overdue like any other loan
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return (int) returned.get();
+    }
+
+    private void execute(Call call, long scheduledNanos, boolean measured) {
+        int status;
+        try {
+            LibraryClient.Response response = client.send(call.method(), call.path(), call.body());
+            status = response.status();
+            if (call.opensLoan() && response.isSuccess()) {
+                openLoans.add(client.json(response).get("id").asLong());
+            }
+        } catch (IOException | RuntimeException e) {
+            // Timeouts, refused connections and unreadable bodies
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (status < 200 || status >= 500) {
+            failed.incrementAndGet();
+        }
+        completed.incrementAndGet();
+        if (measured) {
+            recorder.record(call.endpoint(), scheduledNanos, System.nanoTime(), status);
+        }
+    }
+
+    private Call nextCall() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        Operation operation = operations[0];
+        for (int i = 0; i < operations.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                operation = operations[i];
+                break;
+            }
+        }
+        return switch (operation) {
+            case BROWSE -> browse();
+            case SEARCH -> search();
+            case CHECKOUT -> checkout();
+            case RETURN -> giveBack();
+            case OVERDUE -> overdue();
+        };
+    }
+
+    /**
+     * Half catalog pages, three in ten book details and the rest category listings.
+     */
+    private Call browse() {
+        int kind = random.nextInt(10);
+        if (kind < 5) {
+            int pages = Math.max(1, dataset.bookIds().length / PAGE_SIZE);
+            return get("GET /books", "/books?page=" + random.nextInt(pages) + "&size=" + PAGE_SIZE);
+        }
+        if (kind < 8) {
+            return get("GET /books/{id}", "/books/" + pick(dataset.bookIds()));
+        }
+        String category = dataset.categories().get(random.nextInt(dataset.categories().size()));
+        return get("GET /books/by-category/{category}",
+                "/books/by-category/" + LibraryClient.encode(category).replace("+", "%20") + "?size=" + PAGE_SIZE);
+    }
+
+    /**
+     * One title word, or two in three searches out of ten.
+     */
+    private Call search() {
+        String query = term();
+        if (random.nextInt(10) < 3) {
+            query += " " + term();
+        }
+        return get("GET /books/search", "/books/search?query=" + LibraryClient.encode(query) + "&size=" + PAGE_SIZE);
+    }
+
+    private Call checkout() {
+        Map<String, Object> loan = Map.of(
+                "book", Map.of("id", pick(dataset.bookIds())),
+                "member", Map.of("id", pick(dataset.memberIds())));
+        return new Call("POST /borrowed-books", "POST", "/borrowed-books", loan, true);
+    }
+
+    private Call giveBack() {
+        Long loanId = openLoans.poll();
+        if (loanId == null) {
+            return checkout();
+        }
+        return new Call("PUT /borrowed-books/{id}/return", "PUT", "/borrowed-books/" + loanId + "/return", null, false);
+    }
+
+    private Call overdue() {
+        if (random.nextBoolean()) {
+            return get("GET /borrowed-books/overdue", "/borrowed-books/overdue?size=" + PAGE_SIZE);
+        }
+        return get("GET /members/with-overdue-books", "/members/with-overdue-books");
+    }
+
+    private static Call get(String endpoint, String path) {
+        return new Call(endpoint, "GET", path, null, false);
+    }
+
+    private long pick(long[] ids) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private String term() {
+        return dataset.searchTerms().get(random.nextInt(dataset.searchTerms().size()));
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
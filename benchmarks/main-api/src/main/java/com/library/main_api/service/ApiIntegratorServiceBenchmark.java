@@ -0,0 +1,110 @@
+package com.library.main_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gateway hop in {@link ApiIntegratorService} without a network: the upstream is a request
+ * factory answering every request with the same JSON page, so the measurements cover URL and
+ * header construction, the response cache and relaying. Lives in the service package to reach the
+ * package-private builders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiIntegratorServiceBenchmark {
+
+    private static final byte[] PAGE = ("{\"content\":[{\"id\":1,\"title\":\"The Hobbit\",\"isbn\":\"978-0-547-92822-7\","
+            + "\"category\":\"Fantasy\",\"publishingYear\":1937,\"availableCopies\":3}],"
+            + "\"totalElements\":1,\"totalPages\":1,\"number\":0,\"size\":20}").getBytes(StandardCharsets.UTF_8);
+
+    private final Map<String, Object> query = Map.of("page", 0, "size", 20, "sortBy", "title", "sortDir", "asc");
+    private ApiIntegratorService service;
+
+    @Setup
+    public void setUp() {
+        ClientHttpRequestFactory upstream = (uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(PAGE, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(PAGE.length);
+            request.setResponse(response);
+            return request;
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GatewayResponseCache responseCache = new GatewayResponseCache(
+                true, DataSize.ofMegabytes(64), DataSize.ofMegabytes(1), "/books/**=30s", meterRegistry);
+        service = new ApiIntegratorService(
+                new RestTemplate(upstream), "http://localhost:8080/", "X-API-KEY",
+                "admin-api-key-123", "books-api-key-456", "authors-api-key-789", "borrowed-books-api-key-101",
+                true, true, new ObjectMapper(), responseCache, new GatewayMetrics(meterRegistry));
+    }
+
+    @Benchmark
+    public String buildUrl() {
+        return service.buildUrl(ApiIntegratorService.normalizePath("books/search"), query);
+    }
+
+    @Benchmark
+    public HttpHeaders buildHeaders() {
+        return service.buildHeaders("/borrowed-books/member/42", true);
+    }
+
+    /**
+     * Untyped GET on an uncached route, relayed as a stream and drained as the servlet would.
+     */
+    @Benchmark
+    public long exchangePassthrough() throws IOException {
+        ResponseEntity<Object> response = service.exchange("/authors", HttpMethod.GET, null, Object.class, query);
+        try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * Untyped GET on a cached route; after the first call every page is a fresh cache hit.
+     */
+    @Benchmark
+    public ResponseEntity<Object> exchangeCached() {
+        return service.exchange("/books", HttpMethod.GET, null, Object.class, query);
+    }
+
+    /**
+     * Typed GET, decoded by the RestTemplate's Jackson converter.
+     */
+    @Benchmark
+    public ResponseEntity<Map> exchangeTyped() {
+        return service.exchange("/members", HttpMethod.GET, null, Map.class, query);
+    }
+}
@@ -94,10 +94,10 @@ export const columns: ColumnDef<BorrowedBook>[] = [
               Copy ID
             </DropdownMenuItem>
             <DropdownMenuItem>View Details</DropdownMenuItem>
-            {borrowedBook.status === 'BORROWED' && (
+            {(borrowedBook.status === 'BORROWED' || borrowedBook.status === 'OVERDUE') && (
               <DropdownMenuItem>Mark as Returned</DropdownMenuItem>
             )}
-            {borrowedBook.status === 'BORROWED' && (
+            {(borrowedBook.status === 'BORROWED' || borrowedBook.status === 'OVERDUE') && (
               <DropdownMenuItem>Mark as Lost</DropdownMenuItem>
             )}
           </DropdownMenuContent>
@@ -5,6 +5,7 @@ import type {
   Member, 
   BorrowedBook, 
   PageResponse, 
+  CursorPage, 
   BookFilters, 
   MemberFilters, 
   BorrowedBookFilters 
@@ -53,6 +54,10 @@ export const authorsApi = {
   getAll: (filters?: { search?: string; page?: number; size?: number; sortBy?: string; sortDir?: string }) => 
     api.get<PageResponse<Author>>('/authors', { params: filters }),
   
+  // Infinite scroll: start with after = '' and continue with the returned nextCursor
+  getAllAfter: (after: string, filters?: { size?: number; sortBy?: string; sortDir?: string }) => 
+    api.get<CursorPage<Author>>('/authors', { params: { ...filters, after } }),
+  
   getAllWithoutPagination: () => 
     api.get<Author[]>('/authors/all'),
   
@@ -79,6 +84,9 @@ export const booksApi = {
   getAll: (filters?: BookFilters) => 
     api.get<PageResponse<Book>>('/books', { params: filters }),
   
+  getAllAfter: (after: string, filters?: Omit<BookFilters, 'search' | 'page'>) => 
+    api.get<CursorPage<Book>>('/books', { params: { ...filters, after } }),
+  
   getAllWithoutPagination: () => 
     api.get<Book[]>('/books/all'),
   
@@ -121,6 +129,9 @@ export const membersApi = {
   getAll: (filters?: MemberFilters) => 
     api.get<PageResponse<Member>>('/members', { params: filters }),
   
+  getAllAfter: (after: string, filters?: Omit<MemberFilters, 'search' | 'page'>) => 
+    api.get<CursorPage<Member>>('/members', { params: { ...filters, after } }),
+  
   getAllWithoutPagination: () => 
     api.get<Member[]>('/members/all'),
   
@@ -162,6 +173,10 @@ export const borrowedBooksApi = {
   getAll: (filters?: BorrowedBookFilters) => 
     api.get<PageResponse<BorrowedBook>>('/borrowed-books', { params: filters }),
   
+  // Sorted by id, or by borrow date with sort = 'borrowDate,desc'
+  getAllAfter: (after: string, filters?: { size?: number; sort?: string }) => 
+    api.get<CursorPage<BorrowedBook>>('/borrowed-books', { params: { ...filters, after } }),
+  
   getAllWithoutPagination: () => 
     api.get<BorrowedBook[]>('/borrowed-books/all'),
   
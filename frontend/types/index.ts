@@ -23,6 +23,15 @@ export interface PageResponse<T> {
   numberOfElements: number;
 }
 
+// Cursor (keyset) page: pass nextCursor as `after` for the next page; there is no total count
+export interface CursorPage<T> {
+  content: T[];
+  size: number;
+  numberOfElements: number;
+  hasNext: boolean;
+  nextCursor: string | null;
+}
+
 export interface ApiError {
   message: string;
   status?: number;
@@ -1,5 +1,17 @@
 package com.library.main_api.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,15 +30,13 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Configuration
 public class ApiIntegratorConfig {
@@ -36,9 +46,85 @@ public class ApiIntegratorConfig {
     @Value("${api.integrator.timeout:5000}")
     private int timeout;
 
+    @Value("${api.integrator.pool.max-total:200}")
+    private int maxTotal;
+
+    @Value("${api.integrator.pool.max-per-route:200}")
+    private int maxPerRoute;
+
+    @Value("${api.integrator.pool.lease-timeout:${api.integrator.timeout:5000}}")
+    private long leaseTimeout;
+
+    @Value("${api.integrator.pool.time-to-live:5m}")
+    private Duration timeToLive;
+
+    @Value("${api.integrator.pool.validate-after-inactivity:2s}")
+    private Duration validateAfterInactivity;
+
+    @Value("${api.integrator.pool.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${api.integrator.pool.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${api.integrator.pool.concurrency-policy:STRICT}")
+    private PoolConcurrencyPolicy concurrencyPolicy;
+
+    /**
+     * Connection pool for the hop to the API Integrator. Nearly all traffic goes to a single
+     * route, so the per-route limit defaults to the total instead of httpclient5's 5. Connections
+     * are reused LIFO (keeps the hot ones warm), revalidated after being idle and retired after
+     * their time to live.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager apiIntegratorConnectionManager() {
+        logger.info("API Integrator connection pool: max {} total, {} per route, lease timeout {} ms",
+            maxTotal, maxPerRoute, leaseTimeout);
+        return PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxTotal)
+            .setMaxConnPerRoute(maxPerRoute)
+            .setPoolConcurrencyPolicy(concurrencyPolicy)
+            .setConnPoolPolicy(PoolReusePolicy.LIFO)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(timeout))
+                .setSocketTimeout(Timeout.ofMilliseconds(timeout))
+                .setTimeToLive(TimeValue.ofMilliseconds(timeToLive.toMillis()))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity.toMillis()))
+                .build())
+            .build();
+    }
+
+    /**
+     * Keep-alive follows the server's Keep-Alive header and otherwise uses
+     * {@code api.integrator.pool.keep-alive}, which should stay below the API Integrator's own
+     * keep-alive timeout (Tomcat: 60s) so the client never reuses a connection the server closed.
+     * A background thread evicts expired and idle connections.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient apiIntegratorHttpClient(PoolingHttpClientConnectionManager apiIntegratorConnectionManager) {
+        return HttpClients.custom()
+            .setConnectionManager(apiIntegratorConnectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeout))
+                .setResponseTimeout(Timeout.ofMilliseconds(timeout))
+                .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                .build())
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()))
+            .build();
+    }
+
+    /**
+     * Pool gauges (httpcomponents.httpclient.pool.*: leased, available, pending, max).
+     */
+    @Bean
+    public MeterBinder apiIntegratorConnectionPoolMetrics(PoolingHttpClientConnectionManager apiIntegratorConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(apiIntegratorConnectionManager, "api-integrator");
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        RestTemplate restTemplate = new RestTemplate(getClientHttpRequestFactory());
+    public RestTemplate restTemplate(CloseableHttpClient apiIntegratorHttpClient) {
+        RestTemplate restTemplate = new RestTemplate(getClientHttpRequestFactory(apiIntegratorHttpClient));
         
         // Configure message converters to handle different content types
         configureMessageConverters(restTemplate);
@@ -89,12 +175,9 @@ public class ApiIntegratorConfig {
         }
     }
     
-    private ClientHttpRequestFactory getClientHttpRequestFactory() {
-        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
-        factory.setConnectTimeout(timeout);
-        factory.setConnectionRequestTimeout(timeout);
-        factory.setReadTimeout(timeout);
-        return factory;
+    // Timeouts come from the client's default request and connection config
+    private ClientHttpRequestFactory getClientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
     }
     
     @Bean
@@ -112,7 +195,8 @@ public class ApiIntegratorConfig {
         };
     }
     
-    // Custom error handler that doesn't throw exceptions for 4xx responses
+    // Custom error handler that doesn't throw exceptions for 4xx responses. The body of a 5xx is
+    // left unread so it reaches the exception, which GlobalExceptionHandler logs once
     private static class CustomResponseErrorHandler extends DefaultResponseErrorHandler {
         @Override
         public boolean hasError(ClientHttpResponse response) throws IOException {
@@ -120,25 +204,5 @@ public class ApiIntegratorConfig {
             // Only treat 5xx responses as errors, let the service handle 4xx responses
             return statusCode.is5xxServerError();
         }
-        
-        @Override
-        public void handleError(ClientHttpResponse response) throws IOException {
-            if (logger.isErrorEnabled()) {
-                MediaType contentType = response.getHeaders().getContentType();
-                String responseBody = extractResponseBody(response);
-                logger.error("Error response: {} - Content-Type: {} - Body: {}", 
-                    response.getStatusCode(), contentType, responseBody);
-            }
-            super.handleError(response);
-        }
-        
-        private String extractResponseBody(ClientHttpResponse response) {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
-                return reader.lines().collect(Collectors.joining("\n"));
-            } catch (IOException e) {
-                return "Could not extract response body: " + e.getMessage();
-            }
-        }
     }
 } 
\ No newline at end of file
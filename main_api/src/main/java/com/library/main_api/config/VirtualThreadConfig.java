@@ -0,0 +1,85 @@
+package com.library.main_api.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Virtual-thread mode, enabled with {@code spring.threads.virtual.enabled=true}
+ * (SPRING_THREADS_VIRTUAL_ENABLED; the property Spring Boot 3.2 uses for the same switch).
+ * Tomcat then runs each request on its own virtual thread, so a RestTemplate call to the API
+ * Integrator ({@link com.library.main_api.service.ApiIntegratorService#exchange}) parks the virtual
+ * thread instead of holding a platform thread, and the application task executor (used for async
+ * requests such as relayed exports) starts a virtual thread per task. Concurrent upstream calls
+ * are then bounded by the HTTP client's connection pool rather than by the Tomcat thread count.
+ * <p>
+ * A JFR stream reports virtual threads pinned to their carrier (blocking inside
+ * {@code synchronized} or native code) for longer than {@code api.threads.pinned-threshold};
+ * set it to 0 to turn the diagnostics off.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int PINNED_STACK_DEPTH = 12;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        logger.info("Virtual threads enabled for request handling");
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-vt-", 0).factory()));
+    }
+
+    @Bean(destroyMethod = "close")
+    public RecordingStream virtualThreadPinningMonitor(
+            @Value("${api.threads.pinned-threshold:20ms}") Duration threshold) {
+        RecordingStream stream = new RecordingStream();
+        if (threshold.isZero() || threshold.isNegative()) {
+            return stream;
+        }
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> logger.warn("Virtual thread {} pinned for {} ms{}",
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                event.getDuration().toMillis(), formatStackTrace(event)));
+        stream.startAsync();
+        logger.info("Reporting virtual threads pinned for more than {} ms", threshold.toMillis());
+        return stream;
+    }
+
+    private static String formatStackTrace(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return "";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(PINNED_STACK_DEPTH)
+                .map(frame -> "\n\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : ""))
+                .collect(Collectors.joining());
+    }
+}
@@ -1,11 +1,13 @@
 package com.library.main_api.controller;
 
 import com.library.main_api.service.ApiIntegratorService;
+import com.library.main_api.service.GatewayEngine;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -17,20 +19,23 @@ import java.util.Map;
 public class AuthorController {
 
     private final ApiIntegratorService apiService;
+    private final GatewayEngine gateway;
 
     @Autowired
-    public AuthorController(ApiIntegratorService apiService) {
+    public AuthorController(ApiIntegratorService apiService, GatewayEngine gateway) {
         this.apiService = apiService;
+        this.gateway = gateway;
     }
 
     @GetMapping
     @Operation(summary = "Get all authors with pagination and filtering")
-    public ResponseEntity<Object> getAllAuthors(
+    public Object getAllAuthors(
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
             @RequestParam(required = false, defaultValue = "name") String sortBy,
             @RequestParam(required = false, defaultValue = "asc") String sortDir,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after) {
         
         Map<String, Object> params = new HashMap<>();
         params.put("page", page);
@@ -39,43 +44,51 @@ public class AuthorController {
         params.put("sortDir", sortDir);
         
         if (search != null) params.put("search", search);
+        if (after != null) params.put("after", after);
         
-        return apiService.get("/authors", Object.class, params);
+        return gateway.get("/authors", params);
     }
 
     @GetMapping("/all")
     @Operation(summary = "Get all authors without pagination")
-    public ResponseEntity<Object> getAllAuthorsWithoutPagination() {
-        return apiService.get("/authors/all", Object.class);
+    public Object getAllAuthorsWithoutPagination() {
+        return gateway.get("/authors/all");
+    }
+
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", "application/json"})
+    @Operation(summary = "Export all authors as a stream (format=ndjson or json)")
+    public ResponseEntity<StreamingResponseBody> exportAuthors(
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        return apiService.stream("/authors/export", Map.of("format", format));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get author by ID")
-    public ResponseEntity<Object> getAuthorById(@PathVariable Long id) {
-        return apiService.get("/authors/" + id, Object.class);
+    public Object getAuthorById(@PathVariable Long id) {
+        return gateway.get("/authors/" + id);
     }
 
     @GetMapping("/{id}/with-books")
     @Operation(summary = "Get author with their books")
-    public ResponseEntity<Object> getAuthorWithBooks(@PathVariable Long id) {
-        return apiService.get("/authors/" + id + "/with-books", Object.class);
+    public Object getAuthorWithBooks(@PathVariable Long id) {
+        return gateway.get("/authors/" + id + "/with-books");
     }
 
     @GetMapping("/by-name/{name}")
     @Operation(summary = "Get author by name")
-    public ResponseEntity<Object> getAuthorByName(@PathVariable String name) {
-        return apiService.get("/authors/by-name/" + name, Object.class);
+    public Object getAuthorByName(@PathVariable String name) {
+        return gateway.get("/authors/by-name/" + name);
     }
 
     @GetMapping("/nationality/{nationality}")
     @Operation(summary = "Get authors by nationality")
-    public ResponseEntity<Object> getAuthorsByNationality(@PathVariable String nationality) {
-        return apiService.get("/authors/nationality/" + nationality, Object.class);
+    public Object getAuthorsByNationality(@PathVariable String nationality) {
+        return gateway.get("/authors/nationality/" + nationality);
     }
 
     @GetMapping("/birth-year")
     @Operation(summary = "Get authors by birth year range")
-    public ResponseEntity<Object> getAuthorsByBirthYearRange(
+    public Object getAuthorsByBirthYearRange(
             @RequestParam Integer startYear,
             @RequestParam Integer endYear) {
         
@@ -83,36 +96,36 @@ public class AuthorController {
         params.put("startYear", startYear);
         params.put("endYear", endYear);
         
-        return apiService.get("/authors/birth-year", Object.class, params);
+        return gateway.get("/authors/birth-year", params);
     }
 
     @PostMapping
     @Operation(summary = "Create a new author")
-    public ResponseEntity<Object> createAuthor(@RequestBody Object author) {
-        return apiService.post("/authors", author, Object.class);
+    public Object createAuthor(@RequestBody Object author) {
+        return gateway.post("/authors", author);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update an author")
-    public ResponseEntity<Object> updateAuthor(@PathVariable Long id, @RequestBody Object author) {
-        return apiService.put("/authors/" + id, author, Object.class);
+    public Object updateAuthor(@PathVariable Long id, @RequestBody Object author) {
+        return gateway.put("/authors/" + id, author);
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete an author")
-    public ResponseEntity<Object> deleteAuthor(@PathVariable Long id) {
-        return apiService.delete("/authors/" + id, Object.class);
+    public Object deleteAuthor(@PathVariable Long id) {
+        return gateway.delete("/authors/" + id);
     }
 
     @GetMapping("/{id}/books-count")
     @Operation(summary = "Get book count by author")
-    public ResponseEntity<Object> getBookCountByAuthor(@PathVariable Long id) {
-        return apiService.get("/authors/" + id + "/books-count", Object.class);
+    public Object getBookCountByAuthor(@PathVariable Long id) {
+        return gateway.get("/authors/" + id + "/books-count");
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search authors")
-    public ResponseEntity<Object> searchAuthors(
+    public Object searchAuthors(
             @RequestParam String query,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
@@ -126,6 +139,6 @@ public class AuthorController {
         params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
-        return apiService.get("/authors/search", Object.class, params);
+        return gateway.get("/authors/search", params);
     }
 } 
\ No newline at end of file
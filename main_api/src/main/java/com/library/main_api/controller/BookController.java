@@ -1,11 +1,13 @@
 package com.library.main_api.controller;
 
 import com.library.main_api.service.ApiIntegratorService;
+import com.library.main_api.service.GatewayEngine;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -17,69 +19,88 @@ import java.util.Map;
 public class BookController {
 
     private final ApiIntegratorService apiService;
+    private final GatewayEngine gateway;
 
     @Autowired
-    public BookController(ApiIntegratorService apiService) {
+    public BookController(ApiIntegratorService apiService, GatewayEngine gateway) {
         this.apiService = apiService;
+        this.gateway = gateway;
     }
 
     @GetMapping
     @Operation(summary = "Get all books with pagination and filtering")
-    public ResponseEntity<Object> getAllBooks(
+    public Object getAllBooks(
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
-            @RequestParam(required = false, defaultValue = "title") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(required = false, defaultValue = "asc") String sortDir,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Long authorId,
             @RequestParam(required = false) Integer startYear,
             @RequestParam(required = false) Integer endYear,
-            @RequestParam(required = false) Boolean available) {
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String after) {
         
         Map<String, Object> params = new HashMap<>();
         params.put("page", page);
         params.put("size", size);
-        params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
+        // Without sortBy the integrator ranks search results by relevance and sorts other lists by title
+        if (sortBy != null) params.put("sortBy", sortBy);
         if (search != null) params.put("search", search);
         if (category != null) params.put("category", category);
         if (authorId != null) params.put("authorId", authorId);
         if (startYear != null) params.put("startYear", startYear);
         if (endYear != null) params.put("endYear", endYear);
         if (available != null) params.put("available", available);
+        // Cursor pagination; an empty value asks for the first page
+        if (after != null) params.put("after", after);
         
-        return apiService.get("/books", Object.class, params);
+        return gateway.get("/books", params);
     }
 
     @GetMapping("/all")
     @Operation(summary = "Get all books without pagination")
-    public ResponseEntity<Object> getAllBooksWithoutPagination() {
-        return apiService.get("/books/all", Object.class);
+    public Object getAllBooksWithoutPagination() {
+        return gateway.get("/books/all");
+    }
+
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", "application/json"})
+    @Operation(summary = "Export all books as a stream (format=ndjson or json)")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        return apiService.stream("/books/export", Map.of("format", format));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get book by ID")
-    public ResponseEntity<Object> getBookById(@PathVariable Long id) {
-        return apiService.get("/books/" + id, Object.class);
+    public Object getBookById(@PathVariable Long id) {
+        return gateway.get("/books/" + id);
     }
 
     @GetMapping("/isbn/{isbn}")
     @Operation(summary = "Get book by ISBN")
-    public ResponseEntity<Object> getBookByIsbn(@PathVariable String isbn) {
-        return apiService.get("/books/isbn/" + isbn, Object.class);
+    public Object getBookByIsbn(@PathVariable String isbn) {
+        return gateway.get("/books/isbn/" + isbn);
     }
 
     @GetMapping("/categories")
     @Operation(summary = "Get all book categories")
-    public ResponseEntity<Object> getAllCategories() {
-        return apiService.get("/books/categories", Object.class);
+    public Object getAllCategories() {
+        return gateway.get("/books/categories");
+    }
+
+    @GetMapping("/categories/counts")
+    @Operation(summary = "Get book counts per category")
+    public Object getCategoryCounts() {
+        return gateway.get("/books/categories/counts");
     }
 
     @GetMapping("/available")
     @Operation(summary = "Get available books")
-    public ResponseEntity<Object> getAvailableBooks(
+    public Object getAvailableBooks(
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
             @RequestParam(required = false, defaultValue = "title") String sortBy,
@@ -91,12 +112,12 @@ public class BookController {
         params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
-        return apiService.get("/books/available", Object.class, params);
+        return gateway.get("/books/available", params);
     }
 
     @GetMapping("/unavailable")
     @Operation(summary = "Get unavailable books")
-    public ResponseEntity<Object> getUnavailableBooks(
+    public Object getUnavailableBooks(
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
             @RequestParam(required = false, defaultValue = "title") String sortBy,
@@ -108,46 +129,46 @@ public class BookController {
         params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
-        return apiService.get("/books/unavailable", Object.class, params);
+        return gateway.get("/books/unavailable", params);
     }
 
     @PostMapping
     @Operation(summary = "Create a new book")
-    public ResponseEntity<Object> createBook(@RequestBody Object book) {
-        return apiService.post("/books", book, Object.class);
+    public Object createBook(@RequestBody Object book) {
+        return gateway.post("/books", book);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a book")
-    public ResponseEntity<Object> updateBook(@PathVariable Long id, @RequestBody Object book) {
-        return apiService.put("/books/" + id, book, Object.class);
+    public Object updateBook(@PathVariable Long id, @RequestBody Object book) {
+        return gateway.put("/books/" + id, book);
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a book")
-    public ResponseEntity<Object> deleteBook(@PathVariable Long id) {
-        return apiService.delete("/books/" + id, Object.class);
+    public Object deleteBook(@PathVariable Long id) {
+        return gateway.delete("/books/" + id);
     }
 
     @GetMapping("/{id}/availability")
     @Operation(summary = "Check book availability")
-    public ResponseEntity<Object> checkBookAvailability(@PathVariable Long id) {
-        return apiService.get("/books/" + id + "/availability", Object.class);
+    public Object checkBookAvailability(@PathVariable Long id) {
+        return gateway.get("/books/" + id + "/availability");
     }
 
     @GetMapping("/{id}/borrow-count")
     @Operation(summary = "Get current borrow count")
-    public ResponseEntity<Object> getCurrentBorrowCount(@PathVariable Long id) {
-        return apiService.get("/books/" + id + "/borrow-count", Object.class);
+    public Object getCurrentBorrowCount(@PathVariable Long id) {
+        return gateway.get("/books/" + id + "/borrow-count");
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search books")
-    public ResponseEntity<Object> searchBooks(
+    public Object searchBooks(
             @RequestParam String query,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
-            @RequestParam(required = false, defaultValue = "title") String sortBy,
+            @RequestParam(required = false, defaultValue = "relevance") String sortBy,
             @RequestParam(required = false, defaultValue = "asc") String sortDir) {
         
         Map<String, Object> params = new HashMap<>();
@@ -157,12 +178,12 @@ public class BookController {
         params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
-        return apiService.get("/books/search", Object.class, params);
+        return gateway.get("/books/search", params);
     }
 
     @GetMapping("/by-category/{category}")
     @Operation(summary = "Get books by category")
-    public ResponseEntity<Object> getBooksByCategory(
+    public Object getBooksByCategory(
             @PathVariable String category,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
@@ -175,12 +196,12 @@ public class BookController {
         params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
-        return apiService.get("/books/by-category/" + category, Object.class, params);
+        return gateway.get("/books/by-category/" + category, params);
     }
 
     @GetMapping("/by-author/{authorId}")
     @Operation(summary = "Get books by author")
-    public ResponseEntity<Object> getBooksByAuthor(
+    public Object getBooksByAuthor(
             @PathVariable Long authorId,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
@@ -193,6 +214,6 @@ public class BookController {
         params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
-        return apiService.get("/books/by-author/" + authorId, Object.class, params);
+        return gateway.get("/books/by-author/" + authorId, params);
     }
 } 
\ No newline at end of file
@@ -1,11 +1,10 @@
 package com.library.main_api.controller;
 
-import com.library.main_api.service.ApiIntegratorService;
+import com.library.main_api.service.GatewayEngine;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -18,35 +17,41 @@ import java.util.Map;
 @Tag(name = "Borrowed Books", description = "Borrowed books management endpoints")
 public class BorrowedBookController {
 
-    private final ApiIntegratorService apiService;
+    private final GatewayEngine gateway;
 
     @Autowired
-    public BorrowedBookController(ApiIntegratorService apiService) {
-        this.apiService = apiService;
+    public BorrowedBookController(GatewayEngine gateway) {
+        this.gateway = gateway;
     }
 
     @GetMapping
     @Operation(summary = "Get all borrowed books with pagination")
-    public ResponseEntity<Object> getAllBorrowedBooks(
+    public Object getAllBorrowedBooks(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size) {
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String after) {
         
         Map<String, Object> params = new HashMap<>();
         params.put("page", page);
         params.put("size", size);
         
-        return apiService.get("/borrowed-books", Object.class, params);
+        if (sort != null) params.put("sort", sort);
+        // Cursor pagination; an empty value asks for the first page
+        if (after != null) params.put("after", after);
+        
+        return gateway.get("/borrowed-books", params);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a borrowed book by ID")
-    public ResponseEntity<Object> getBorrowedBookById(@PathVariable Long id) {
-        return apiService.get("/borrowed-books/" + id, Object.class);
+    public Object getBorrowedBookById(@PathVariable Long id) {
+        return gateway.get("/borrowed-books/" + id);
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Get borrowed books by status")
-    public ResponseEntity<Object> getByStatus(
+    public Object getByStatus(
             @PathVariable String status,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size) {
@@ -55,12 +60,12 @@ public class BorrowedBookController {
         params.put("page", page);
         params.put("size", size);
         
-        return apiService.get("/borrowed-books/status/" + status, Object.class, params);
+        return gateway.get("/borrowed-books/status/" + status, params);
     }
 
     @GetMapping("/member/{memberId}")
     @Operation(summary = "Get borrowed books by member ID")
-    public ResponseEntity<Object> getByMemberId(
+    public Object getByMemberId(
             @PathVariable Long memberId,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size) {
@@ -69,12 +74,12 @@ public class BorrowedBookController {
         params.put("page", page);
         params.put("size", size);
         
-        return apiService.get("/borrowed-books/member/" + memberId, Object.class, params);
+        return gateway.get("/borrowed-books/member/" + memberId, params);
     }
 
     @GetMapping("/book/{bookId}")
     @Operation(summary = "Get borrowed books by book ID")
-    public ResponseEntity<Object> getByBookId(
+    public Object getByBookId(
             @PathVariable Long bookId,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size) {
@@ -83,12 +88,12 @@ public class BorrowedBookController {
         params.put("page", page);
         params.put("size", size);
         
-        return apiService.get("/borrowed-books/book/" + bookId, Object.class, params);
+        return gateway.get("/borrowed-books/book/" + bookId, params);
     }
 
     @GetMapping("/date-range")
     @Operation(summary = "Get borrowed books by date range")
-    public ResponseEntity<Object> getByDateRange(
+    public Object getByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false, defaultValue = "0") int page,
@@ -100,12 +105,35 @@ public class BorrowedBookController {
         params.put("page", page);
         params.put("size", size);
         
-        return apiService.get("/borrowed-books/date-range", Object.class, params);
+        return gateway.get("/borrowed-books/date-range", params);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search borrowed books by member name or book title")
+    public Object searchBorrowedBooks(
+            @RequestParam String query,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "10") int size) {
+        
+        Map<String, Object> params = new HashMap<>();
+        params.put("query", query);
+        if (startDate != null) {
+            params.put("startDate", startDate.toString());
+        }
+        if (endDate != null) {
+            params.put("endDate", endDate.toString());
+        }
+        params.put("page", page);
+        params.put("size", size);
+        
+        return gateway.get("/borrowed-books/search", params);
     }
 
     @GetMapping("/overdue")
     @Operation(summary = "Get overdue books")
-    public ResponseEntity<Object> getOverdueBooks(
+    public Object getOverdueBooks(
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size) {
         
@@ -113,18 +141,30 @@ public class BorrowedBookController {
         params.put("page", page);
         params.put("size", size);
         
-        return apiService.get("/borrowed-books/overdue", Object.class, params);
+        return gateway.get("/borrowed-books/overdue", params);
     }
 
     @PostMapping
     @Operation(summary = "Borrow a book")
-    public ResponseEntity<Object> borrowBook(@RequestBody Object borrowedBook) {
-        return apiService.post("/borrowed-books", borrowedBook, Object.class);
+    public Object borrowBook(@RequestBody Object borrowedBook) {
+        return gateway.post("/borrowed-books", borrowedBook);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Borrow several books in one transaction")
+    public Object borrowBooks(@RequestBody Object borrowedBooks) {
+        return gateway.post("/borrowed-books/batch", borrowedBooks);
+    }
+
+    @PutMapping("/batch/return")
+    @Operation(summary = "Return several borrowed books in one transaction")
+    public Object returnBooks(@RequestBody Object items) {
+        return gateway.put("/borrowed-books/batch/return", items);
     }
 
     @PutMapping("/{id}/return")
     @Operation(summary = "Return a borrowed book")
-    public ResponseEntity<Object> returnBook(
+    public Object returnBook(
             @PathVariable Long id,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnDate) {
         
@@ -133,24 +173,24 @@ public class BorrowedBookController {
             params.put("returnDate", returnDate.toString());
         }
         
-        return apiService.put("/borrowed-books/" + id + "/return", null, Object.class);
+        return gateway.put("/borrowed-books/" + id + "/return", null);
     }
 
     @PutMapping("/{id}/status")
     @Operation(summary = "Update borrowed book status")
-    public ResponseEntity<Object> updateStatus(
+    public Object updateStatus(
             @PathVariable Long id,
             @RequestParam String status) {
         
         Map<String, Object> params = new HashMap<>();
         params.put("status", status);
         
-        return apiService.put("/borrowed-books/" + id + "/status", null, Object.class);
+        return gateway.put("/borrowed-books/" + id + "/status", null);
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a borrowed book record")
-    public ResponseEntity<Object> deleteBorrowedBook(@PathVariable Long id) {
-        return apiService.delete("/borrowed-books/" + id, Object.class);
+    public Object deleteBorrowedBook(@PathVariable Long id) {
+        return gateway.delete("/borrowed-books/" + id);
     }
 } 
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.library.main_api.controller;
 
 import com.library.main_api.service.ApiIntegratorService;
+import com.library.main_api.service.GatewayEngine;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -17,21 +19,24 @@ import java.util.Map;
 public class MemberController {
 
     private final ApiIntegratorService apiService;
+    private final GatewayEngine gateway;
 
     @Autowired
-    public MemberController(ApiIntegratorService apiService) {
+    public MemberController(ApiIntegratorService apiService, GatewayEngine gateway) {
         this.apiService = apiService;
+        this.gateway = gateway;
     }
 
     @GetMapping
     @Operation(summary = "Get all members with pagination and filtering")
-    public ResponseEntity<Object> getAllMembers(
+    public Object getAllMembers(
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
             @RequestParam(required = false, defaultValue = "name") String sortBy,
             @RequestParam(required = false, defaultValue = "asc") String sortDir,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String after) {
         
         Map<String, Object> params = new HashMap<>();
         params.put("page", page);
@@ -41,43 +46,51 @@ public class MemberController {
         
         if (search != null) params.put("search", search);
         if (status != null) params.put("status", status);
+        if (after != null) params.put("after", after);
         
-        return apiService.get("/members", Object.class, params);
+        return gateway.get("/members", params);
     }
 
     @GetMapping("/all")
     @Operation(summary = "Get all members without pagination")
-    public ResponseEntity<Object> getAllMembersWithoutPagination() {
-        return apiService.get("/members/all", Object.class);
+    public Object getAllMembersWithoutPagination() {
+        return gateway.get("/members/all");
+    }
+
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", "application/json"})
+    @Operation(summary = "Export all members as a stream (format=ndjson or json)")
+    public ResponseEntity<StreamingResponseBody> exportMembers(
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        return apiService.stream("/members/export", Map.of("format", format));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get member by ID")
-    public ResponseEntity<Object> getMemberById(@PathVariable Long id) {
-        return apiService.get("/members/" + id, Object.class);
+    public Object getMemberById(@PathVariable Long id) {
+        return gateway.get("/members/" + id);
     }
 
     @GetMapping("/{id}/with-borrowed-books")
     @Operation(summary = "Get member with their borrowed books")
-    public ResponseEntity<Object> getMemberWithBorrowedBooks(@PathVariable Long id) {
-        return apiService.get("/members/" + id + "/with-borrowed-books", Object.class);
+    public Object getMemberWithBorrowedBooks(@PathVariable Long id) {
+        return gateway.get("/members/" + id + "/with-borrowed-books");
     }
 
     @GetMapping("/by-email/{email}")
     @Operation(summary = "Get member by email")
-    public ResponseEntity<Object> getMemberByEmail(@PathVariable String email) {
-        return apiService.get("/members/by-email/" + email, Object.class);
+    public Object getMemberByEmail(@PathVariable String email) {
+        return gateway.get("/members/by-email/" + email);
     }
 
     @GetMapping("/with-overdue-books")
     @Operation(summary = "Get members with overdue books")
-    public ResponseEntity<Object> getMembersWithOverdueBooks() {
-        return apiService.get("/members/with-overdue-books", Object.class);
+    public Object getMembersWithOverdueBooks() {
+        return gateway.get("/members/with-overdue-books");
     }
 
     @GetMapping("/active-no-borrows")
     @Operation(summary = "Get active members with no borrows")
-    public ResponseEntity<Object> getActiveMembersWithNoBorrows(
+    public Object getActiveMembersWithNoBorrows(
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
             @RequestParam(required = false, defaultValue = "name") String sortBy,
@@ -89,60 +102,60 @@ public class MemberController {
         params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
-        return apiService.get("/members/active-no-borrows", Object.class, params);
+        return gateway.get("/members/active-no-borrows", params);
     }
 
     @PostMapping
     @Operation(summary = "Create a new member")
-    public ResponseEntity<Object> createMember(@RequestBody Object member) {
-        return apiService.post("/members", member, Object.class);
+    public Object createMember(@RequestBody Object member) {
+        return gateway.post("/members", member);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a member")
-    public ResponseEntity<Object> updateMember(@PathVariable Long id, @RequestBody Object member) {
-        return apiService.put("/members/" + id, member, Object.class);
+    public Object updateMember(@PathVariable Long id, @RequestBody Object member) {
+        return gateway.put("/members/" + id, member);
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a member")
-    public ResponseEntity<Object> deleteMember(@PathVariable Long id) {
-        return apiService.delete("/members/" + id, Object.class);
+    public Object deleteMember(@PathVariable Long id) {
+        return gateway.delete("/members/" + id);
     }
 
     @PatchMapping("/{id}/suspend")
     @Operation(summary = "Suspend a member")
-    public ResponseEntity<Object> suspendMember(@PathVariable Long id) {
-        return apiService.put("/members/" + id + "/suspend", null, Object.class);
+    public Object suspendMember(@PathVariable Long id) {
+        return gateway.put("/members/" + id + "/suspend", null);
     }
 
     @PatchMapping("/{id}/activate")
     @Operation(summary = "Activate a member")
-    public ResponseEntity<Object> activateMember(@PathVariable Long id) {
-        return apiService.put("/members/" + id + "/activate", null, Object.class);
+    public Object activateMember(@PathVariable Long id) {
+        return gateway.put("/members/" + id + "/activate", null);
     }
 
     @GetMapping("/{id}/can-borrow")
     @Operation(summary = "Check if member can borrow")
-    public ResponseEntity<Object> canMemberBorrow(@PathVariable Long id) {
-        return apiService.get("/members/" + id + "/can-borrow", Object.class);
+    public Object canMemberBorrow(@PathVariable Long id) {
+        return gateway.get("/members/" + id + "/can-borrow");
     }
 
     @GetMapping("/{id}/current-borrows-count")
     @Operation(summary = "Get current borrows count")
-    public ResponseEntity<Object> getCurrentBorrowsCount(@PathVariable Long id) {
-        return apiService.get("/members/" + id + "/current-borrows-count", Object.class);
+    public Object getCurrentBorrowsCount(@PathVariable Long id) {
+        return gateway.get("/members/" + id + "/current-borrows-count");
     }
 
     @GetMapping("/{id}/total-borrows-count")
     @Operation(summary = "Get total borrows count")
-    public ResponseEntity<Object> getTotalBorrowsCount(@PathVariable Long id) {
-        return apiService.get("/members/" + id + "/total-borrows-count", Object.class);
+    public Object getTotalBorrowsCount(@PathVariable Long id) {
+        return gateway.get("/members/" + id + "/total-borrows-count");
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search members")
-    public ResponseEntity<Object> searchMembers(
+    public Object searchMembers(
             @RequestParam String query,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
@@ -156,12 +169,12 @@ public class MemberController {
         params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
-        return apiService.get("/members/search", Object.class, params);
+        return gateway.get("/members/search", params);
     }
 
     @GetMapping("/by-status/{status}")
     @Operation(summary = "Get members by status")
-    public ResponseEntity<Object> getMembersByStatus(
+    public Object getMembersByStatus(
             @PathVariable String status,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int size,
@@ -174,6 +187,6 @@ public class MemberController {
         params.put("sortBy", sortBy);
         params.put("sortDir", sortDir);
         
-        return apiService.get("/members/by-status/" + status, Object.class, params);
+        return gateway.get("/members/by-status/" + status, params);
     }
 } 
\ No newline at end of file
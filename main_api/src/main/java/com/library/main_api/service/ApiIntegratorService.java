@@ -1,27 +1,50 @@
 package com.library.main_api.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.library.main_api.exception.ApiIntegratorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ApiIntegratorService {
 
     private static final Logger logger = LoggerFactory.getLogger(ApiIntegratorService.class);
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(
+        HttpHeaders.CONTENT_TYPE,
+        HttpHeaders.CONTENT_LENGTH,
+        HttpHeaders.CONTENT_ENCODING,
+        HttpHeaders.ETAG,
+        HttpHeaders.LAST_MODIFIED,
+        HttpHeaders.CACHE_CONTROL
+    );
     private final RestTemplate restTemplate;
     private final String baseUrl;
     private final String apiKeyHeaderName;
@@ -30,6 +53,10 @@ public class ApiIntegratorService {
     private final String authorsApiKey;
     private final String borrowedBooksApiKey;
     private final boolean bypassAuth;
+    private final boolean passthrough;
+    private final ObjectMapper objectMapper;
+    private final GatewayResponseCache responseCache;
+    private final GatewayMetrics metrics;
 
     @Autowired
     public ApiIntegratorService(
@@ -40,7 +67,11 @@ public class ApiIntegratorService {
             @Value("${API_KEY_BOOKS}")                 String booksApiKey,
             @Value("${API_KEY_AUTHORS}")               String authorsApiKey,
             @Value("${API_KEY_BORROWED_BOOKS}")        String borrowedBooksApiKey,
-            @Value("${api.bypass.auth:true}")          boolean bypassAuth
+            @Value("${api.bypass.auth:true}")          boolean bypassAuth,
+            @Value("${api.integrator.passthrough:true}") boolean passthrough,
+            ObjectMapper objectMapper,
+            GatewayResponseCache responseCache,
+            GatewayMetrics metrics
     ) {
         this.baseUrl = baseUrl.endsWith("/")
             ? baseUrl.substring(0, baseUrl.length() - 1)
@@ -54,8 +85,12 @@ public class ApiIntegratorService {
         this.authorsApiKey       = authorsApiKey;
         this.borrowedBooksApiKey = borrowedBooksApiKey;
         this.bypassAuth          = bypassAuth;
+        this.passthrough         = passthrough;
+        this.objectMapper        = objectMapper;
+        this.responseCache       = responseCache;
+        this.metrics             = metrics;
 
-        logger.info("Using API key header: {}, bypass auth: {}", apiKeyHeaderName, bypassAuth);
+        logger.info("Using API key header: {}, bypass auth: {}, passthrough: {}", apiKeyHeaderName, bypassAuth, passthrough);
     }
 
     public <T> ResponseEntity<T> get(String path, Class<T> responseType) {
@@ -86,44 +121,49 @@ public class ApiIntegratorService {
         Map<String, ?> queryParams
     ) {
         // 1) Normalize path
-        if (!path.startsWith("/")) {
-            path = "/" + path;
-        }
+        path = normalizePath(path);
 
         // 2) Build URL + query params
-        // Use fromHttpUrl(baseUrl + path) so embedded query strings are parsed correctly
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl + path);
-        if (queryParams != null && !queryParams.isEmpty()) {
-            queryParams.forEach((k, v) -> {
-                if (v != null) builder.queryParam(k, v);
-            });
-        }
-        String url = builder.toUriString();
+        String url = buildUrl(path, queryParams);
 
-        // 3) Prepare headers
-        HttpHeaders headers = new HttpHeaders();
-        if (body != null) {
-            headers.setContentType(MediaType.APPLICATION_JSON);
+        // 3) Prepare headers (4) with the API key if bypassAuth)
+        HttpHeaders headers = buildHeaders(path, body != null);
+
+        if (method == HttpMethod.GET) {
+            // Catalog reads may be answered from the response cache
+            Duration ttl = responseType == Object.class ? responseCache.ttlFor(path) : null;
+            if (ttl != null) {
+                @SuppressWarnings("unchecked")
+                ResponseEntity<T> cached = (ResponseEntity<T>) cachedGet(path, url, headers, responseCache.key(path, queryParams), ttl);
+                return cached;
+            }
+            return send(method, path, url, headers, body, responseType);
         }
-        headers.setAccept(Arrays.asList(
-            MediaType.APPLICATION_JSON,
-            MediaType.TEXT_PLAIN,
-            MediaType.ALL
-        ));
+        try {
+            return send(method, path, url, headers, body, responseType);
+        } finally {
+            // A relayed write may change any cached page
+            responseCache.invalidateAll();
+        }
+    }
 
-        // 4) Inject API-Key if bypassAuth
-        if (bypassAuth) {
-            String apiKey = determineApiKey(path);
-            headers.set(apiKeyHeaderName, apiKey);
-            logger.debug("Injecting API key '{}' for path {}", apiKey, path);
+    private <T, R> ResponseEntity<T> send(HttpMethod method, String path, String url, HttpHeaders headers, R body, Class<T> responseType) {
+        // Untyped responses are relayed as bytes unless passthrough is off (e.g. to log bodies)
+        if (responseType == Object.class && passthrough) {
+            @SuppressWarnings("unchecked")
+            ResponseEntity<T> relayed = (ResponseEntity<T>) passthrough(method, path, url, headers, body);
+            return relayed;
         }
 
-        // 5) Build entity and log outbound
+        // 5) Build entity and log outbound (headers and body are only rendered at DEBUG)
         HttpEntity<R> requestEntity = new HttpEntity<>(body, headers);
-        logger.debug("→ {} {}", method, url);
-        logger.debug("→ Headers: {}", headers);
-        if (body != null) logger.debug("→ Body: {}", body);
+        if (logger.isDebugEnabled()) {
+            logger.debug("→ {} {}", method, url);
+            logger.debug("→ Headers: {}", headers);
+            if (body != null) logger.debug("→ Body: {}", body);
+        }
 
+        GatewayMetrics.Call call = metrics.start(method, path);
         try {
             ResponseEntity<T> response;
             if (responseType == Object.class) {
@@ -139,17 +179,25 @@ public class ApiIntegratorService {
                 );
             }
 
+            // Body size only when the upstream sent a Content-Length; the body is already decoded
+            call.stop(response.getStatusCode().value());
+            call.recordSize(response.getHeaders().getContentLength());
+
             // 6) Log inbound
-            logger.debug("← Status : {}", response.getStatusCode());
-            logger.debug("← Headers: {}", response.getHeaders());
-            logger.debug("← Body   : {}", response.getBody());
+            if (logger.isDebugEnabled()) {
+                logger.debug("← Status : {}", response.getStatusCode());
+                logger.debug("← Headers: {}", response.getHeaders());
+                logger.debug("← Body   : {}", response.getBody());
+            }
 
             return response;
         } catch (HttpStatusCodeException ex) {
-            org.springframework.http.HttpStatus status = org.springframework.http.HttpStatus.valueOf(ex.getStatusCode().value());
+            call.stop(ex.getStatusCode().value());
+            call.recordSize(ex.getResponseBodyAsByteArray().length);
+            HttpStatus status = errorStatus(ex.getStatusCode());
             MediaType ct = ex.getResponseHeaders().getContentType();
-            logger.error("Error Response Status: {}", status);
-            logger.error("Error Response Body: {}", ex.getResponseBodyAsString());
+            // Logged once at ERROR, with the body, by GlobalExceptionHandler
+            logger.debug("Error Response Status: {}", status);
             throw new ApiIntegratorException(
                 "Error calling API integrator: " + status,
                 status,
@@ -157,9 +205,247 @@ public class ApiIntegratorService {
                 ct != null ? ct.toString() : "unknown"
             );
         } catch (Exception ex) {
+            call.failed();
+            logger.error("Unexpected exception: {}", ex.getMessage(), ex);
+            throw new ApiIntegratorException("Unexpected error calling API integrator", ex);
+        }
+    }
+
+    /**
+     * Relays a GET without buffering: the upstream request is made here so its status and content
+     * type can be forwarded, and the body is then copied to the client as it arrives. Meant for
+     * exports, whose bodies are too large to hold as a String.
+     */
+    public ResponseEntity<StreamingResponseBody> stream(String path, Map<String, ?> queryParams) {
+        path = normalizePath(path);
+        String url = buildUrl(path, queryParams);
+        logger.debug("→ GET {} (streamed)", url);
+
+        GatewayMetrics.Call call = metrics.start(HttpMethod.GET, path);
+        ClientHttpResponse response;
+        try {
+            response = open(HttpMethod.GET, url, buildHeaders(path, false), null);
+        } catch (IOException ex) {
+            call.failed();
+            logger.error("Unexpected exception: {}", ex.getMessage(), ex);
+            throw new ApiIntegratorException("Unexpected error calling API integrator", ex);
+        }
+
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(response.getHeaders().getContentType());
+            logger.debug("← Status : {} (streamed)", response.getStatusCode());
+            call.stop(response.getStatusCode().value());
+
+            StreamingResponseBody body = output -> {
+                try (ClientHttpResponse upstream = response; InputStream input = call.countingBody(upstream.getBody())) {
+                    input.transferTo(output);
+                }
+            };
+            return new ResponseEntity<>(body, headers, response.getStatusCode());
+        } catch (IOException | RuntimeException ex) {
+            call.failed();
+            response.close();
+            throw new ApiIntegratorException("Unexpected error calling API integrator", ex);
+        }
+    }
+
+    /**
+     * Relays an upstream response without decoding it. The status and the entity headers
+     * (content type, length and encoding, caching validators) are forwarded and the body is handed
+     * to Spring MVC as a stream, which copies it to the servlet output; no String or JSON tree is
+     * built. Upstream 5xx responses still raise {@link ApiIntegratorException}, as in the
+     * buffered path.
+     */
+    private ResponseEntity<Object> passthrough(HttpMethod method, String path, String url, HttpHeaders headers, Object body) {
+        logger.debug("→ {} {} (passthrough)", method, url);
+        GatewayMetrics.Call call = metrics.start(method, path);
+        ClientHttpResponse response;
+        try {
+            response = open(method, url, headers, body);
+        } catch (IOException ex) {
+            call.failed();
+            logger.error("Unexpected exception: {}", ex.getMessage(), ex);
+            throw new ApiIntegratorException("Unexpected error calling API integrator", ex);
+        }
+
+        try {
+            HttpStatusCode status = response.getStatusCode();
+            HttpHeaders upstreamHeaders = response.getHeaders();
+            call.stop(status.value());
+            if (status.is5xxServerError()) {
+                byte[] errorBody = StreamUtils.copyToByteArray(response.getBody());
+                call.recordSize(errorBody.length);
+                response.close();
+                throw upstreamError(status, upstreamHeaders, new String(errorBody, StandardCharsets.UTF_8));
+            }
+
+            HttpHeaders forwarded = forwardedHeaders(upstreamHeaders);
+            logger.debug("← Status : {} (passthrough)", status);
+
+            if (status.value() == 204 || status.value() == 304 || upstreamHeaders.getContentLength() == 0) {
+                call.recordSize(0);
+                response.close();
+                return new ResponseEntity<>(forwarded, status);
+            }
+            // Closing the stream (done by the resource converter) releases the upstream connection
+            InputStream input = onClose(call.countingBody(response.getBody()), response::close);
+            return new ResponseEntity<>(new InputStreamResource(input), forwarded, status);
+        } catch (IOException ex) {
+            call.failed();
+            response.close();
+            logger.error("Unexpected exception: {}", ex.getMessage(), ex);
+            throw new ApiIntegratorException("Unexpected error calling API integrator", ex);
+        }
+    }
+
+    /**
+     * GET through the response cache: a fresh entry is served without a request, a stale one is
+     * revalidated with its ETag, and anything else is fetched. Bodies up to the cache's
+     * {@code max-entry-size} are buffered to be stored; larger ones are relayed as a stream.
+     */
+    private ResponseEntity<Object> cachedGet(String path, String url, HttpHeaders headers, String key, Duration ttl) {
+        GatewayResponseCache.Entry cached = responseCache.get(key);
+        if (cached != null && cached.isFresh()) {
+            logger.debug("← Cache hit: {}", key);
+            return responseCache.hit(cached);
+        }
+        if (cached != null && cached.getETag() != null) {
+            headers.setIfNoneMatch(cached.getETag());
+        }
+
+        logger.debug("→ GET {} (cacheable)", url);
+        GatewayMetrics.Call call = metrics.start(HttpMethod.GET, path);
+        ClientHttpResponse response;
+        try {
+            response = open(HttpMethod.GET, url, headers, null);
+        } catch (IOException ex) {
+            call.failed();
             logger.error("Unexpected exception: {}", ex.getMessage(), ex);
             throw new ApiIntegratorException("Unexpected error calling API integrator", ex);
         }
+
+        try {
+            HttpStatusCode status = response.getStatusCode();
+            logger.debug("← Status : {} (cacheable)", status);
+            call.stop(status.value());
+            if (status.value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+                response.close();
+                return responseCache.revalidated(key, cached, ttl);
+            }
+            if (status.is5xxServerError()) {
+                byte[] errorBody = StreamUtils.copyToByteArray(response.getBody());
+                call.recordSize(errorBody.length);
+                response.close();
+                throw upstreamError(status, response.getHeaders(), new String(errorBody, StandardCharsets.UTF_8));
+            }
+            InputStream input = onClose(call.countingBody(response.getBody()), response::close);
+            return responseCache.miss(key, status, forwardedHeaders(response.getHeaders()), input, ttl);
+        } catch (IOException ex) {
+            call.failed();
+            response.close();
+            logger.error("Unexpected exception: {}", ex.getMessage(), ex);
+            throw new ApiIntegratorException("Unexpected error calling API integrator", ex);
+        }
+    }
+
+    /**
+     * {@code body} running {@code action} once when it is closed, e.g. to release the upstream
+     * connection after the relayed body has been copied.
+     */
+    static InputStream onClose(InputStream body, Runnable action) {
+        return new FilterInputStream(body) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!closed) {
+                        closed = true;
+                        action.run();
+                    }
+                }
+            }
+        };
+    }
+
+    static HttpHeaders forwardedHeaders(HttpHeaders upstreamHeaders) {
+        HttpHeaders forwarded = new HttpHeaders();
+        for (String name : PASSTHROUGH_HEADERS) {
+            List<String> values = upstreamHeaders.get(name);
+            if (values != null) {
+                forwarded.put(name, values);
+            }
+        }
+        return forwarded;
+    }
+
+    static ApiIntegratorException upstreamError(HttpStatusCode status, HttpHeaders upstreamHeaders, String errorBody) {
+        MediaType ct = upstreamHeaders.getContentType();
+        // Logged once at ERROR, with the body, by GlobalExceptionHandler
+        logger.debug("Error Response Status: {}", status);
+        return new ApiIntegratorException(
+            "Error calling API integrator: " + status,
+            errorStatus(status),
+            errorBody,
+            ct != null ? ct.toString() : "unknown"
+        );
+    }
+
+    /** Codes outside the {@link HttpStatus} enum (e.g. 599) are reported as the nearest generic one. */
+    private static HttpStatus errorStatus(HttpStatusCode status) {
+        HttpStatus resolved = HttpStatus.resolve(status.value());
+        if (resolved != null) {
+            return resolved;
+        }
+        return status.is4xxClientError() ? HttpStatus.BAD_REQUEST : HttpStatus.BAD_GATEWAY;
+    }
+
+    private ClientHttpResponse open(HttpMethod method, String url, HttpHeaders headers, Object body) throws IOException {
+        // url is already encoded by buildUrl, so it is used as is rather than expanded again
+        ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(URI.create(url), method);
+        request.getHeaders().putAll(headers);
+        if (body != null) {
+            request.getBody().write(objectMapper.writeValueAsBytes(body));
+        }
+        return request.execute();
+    }
+
+    static String normalizePath(String path) {
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    // Use fromHttpUrl(baseUrl + path) so embedded query strings are parsed correctly
+    String buildUrl(String path, Map<String, ?> queryParams) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl + path);
+        if (queryParams != null && !queryParams.isEmpty()) {
+            queryParams.forEach((k, v) -> {
+                if (v != null) builder.queryParam(k, v);
+            });
+        }
+        return builder.toUriString();
+    }
+
+    HttpHeaders buildHeaders(String path, boolean hasBody) {
+        HttpHeaders headers = new HttpHeaders();
+        if (hasBody) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+        headers.setAccept(Arrays.asList(
+            MediaType.APPLICATION_JSON,
+            MediaType.TEXT_PLAIN,
+            MediaType.ALL
+        ));
+
+        // Inject API-Key if bypassAuth
+        if (bypassAuth) {
+            String apiKey = determineApiKey(path);
+            headers.set(apiKeyHeaderName, apiKey);
+            logger.debug("Injecting API key '{}' for path {}", apiKey, path);
+        }
+        return headers;
     }
 
     private String determineApiKey(String path) {
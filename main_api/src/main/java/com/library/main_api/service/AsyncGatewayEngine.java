@@ -0,0 +1,276 @@
+package com.library.main_api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.main_api.exception.ApiIntegratorException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking engine on the JDK {@link HttpClient}. Requests are sent with {@code sendAsync} and
+ * the controller's future completes on one of a few client threads, so the servlet thread is
+ * released until the upstream headers arrive (Spring MVC finishes the response as an async request).
+ * The body is then copied to the client by a servlet thread with blocking reads, so a slow upstream
+ * body still holds one of the {@code server.tomcat.threads.max} threads while it transfers.
+ * <p>
+ * Backpressure: the number of upstream calls in flight is bounded by a semaphore, and a call over
+ * the limit fails at once with 503 instead of queueing, which keeps memory and upstream
+ * connections bounded when the API Integrator slows down. A call holds its permit until the
+ * upstream body is closed, so bodies still being relayed count against the limit. URLs, API keys
+ * and the forwarded headers are the same as in {@link ApiIntegratorService}; bodies are relayed as
+ * a byte stream, as in its passthrough. Catalog reads go through the same {@link GatewayResponseCache}.
+ */
+@Service
+@Profile("async-gateway")
+public class AsyncGatewayEngine implements GatewayEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncGatewayEngine.class);
+
+    /**
+     * 5xx responses are read in full before the future completes (without blocking a client
+     * thread), since their body is logged. Other bodies are handed over as a stream, which the
+     * response cache reads up to its entry limit and the servlet thread copies to the client, so
+     * large pages are never held on heap.
+     */
+    private static final HttpResponse.BodyHandler<InputStream> BODY_HANDLER = info -> info.statusCode() >= 500
+        ? HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), ByteArrayInputStream::new)
+        : HttpResponse.BodySubscribers.ofInputStream();
+
+    private final ApiIntegratorService apiService;
+    private final GatewayResponseCache responseCache;
+    private final GatewayMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final ExecutorService executor;
+    // Reads the start of cacheable bodies, which blocks until enough has arrived
+    private final ExecutorService bodyReader = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+
+    @Autowired
+    public AsyncGatewayEngine(
+            ApiIntegratorService apiService,
+            GatewayResponseCache responseCache,
+            GatewayMetrics metrics,
+            ObjectMapper objectMapper,
+            @Value("${api.integrator.timeout:5000}")           long timeoutMillis,
+            @Value("${api.integrator.async.max-in-flight:2000}") int maxInFlight,
+            @Value("${api.integrator.async.threads:4}")       int threads
+    ) {
+        this.apiService   = apiService;
+        this.responseCache = responseCache;
+        this.metrics      = metrics;
+        this.objectMapper = objectMapper;
+        this.timeout      = Duration.ofMillis(timeoutMillis);
+        this.maxInFlight  = maxInFlight;
+        this.inFlight     = new Semaphore(maxInFlight);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "gateway-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .executor(executor)
+            .build();
+
+        logger.info("Async gateway engine: {} client threads, at most {} requests in flight", threads, maxInFlight);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(String path, HttpMethod method, Object body, Map<String, ?> queryParams) {
+        path = ApiIntegratorService.normalizePath(path);
+        String url = apiService.buildUrl(path, queryParams);
+
+        Duration ttl = method == HttpMethod.GET ? responseCache.ttlFor(path) : null;
+        String key = ttl != null ? responseCache.key(path, queryParams) : null;
+        GatewayResponseCache.Entry cached = key != null ? responseCache.get(key) : null;
+        if (cached != null && cached.isFresh()) {
+            logger.debug("← Cache hit: {}", key);
+            return CompletableFuture.completedFuture(responseCache.hit(cached));
+        }
+
+        HttpHeaders headers = apiService.buildHeaders(path, body != null);
+        if (cached != null && cached.getETag() != null) {
+            headers.setIfNoneMatch(cached.getETag());
+        }
+
+        HttpRequest request;
+        try {
+            request = buildRequest(method, url, headers, body);
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            logger.error("Unexpected exception: {}", ex.getMessage(), ex);
+            return CompletableFuture.failedFuture(new ApiIntegratorException("Unexpected error calling API integrator", ex));
+        }
+
+        if (!inFlight.tryAcquire()) {
+            logger.warn("Rejecting {} {}: {} requests already in flight", method, url, maxInFlight);
+            return CompletableFuture.failedFuture(new ApiIntegratorException(
+                "Too many requests in flight to API integrator",
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "At most " + maxInFlight + " concurrent requests are relayed"
+            ));
+        }
+
+        logger.debug("→ {} {} (async)", method, url);
+        GatewayMetrics.Call call = metrics.start(method, path);
+        // Released once, when the call fails or its upstream body is closed
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                inFlight.release();
+            }
+        };
+        CompletableFuture<HttpResponse<InputStream>> sent;
+        try {
+            sent = httpClient.sendAsync(request, BODY_HANDLER);
+        } catch (RuntimeException ex) {
+            call.failed();
+            release.run();
+            throw ex;
+        }
+        return sent
+            .whenComplete((response, ex) -> {
+                if (ex != null) {
+                    release.run();
+                    call.failed();
+                } else {
+                    call.stop(response.statusCode());
+                }
+                if (method != HttpMethod.GET) {
+                    // A relayed write may change any cached page
+                    responseCache.invalidateAll();
+                }
+            })
+            .handle((response, ex) -> {
+                if (ex != null) {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    logger.error("Unexpected exception: {}", cause.getMessage(), cause);
+                    throw new ApiIntegratorException("Unexpected error calling API integrator", cause);
+                }
+                return response;
+            })
+            // A cacheable body is read up to max-entry-size before completing, off the client threads
+            .thenApplyAsync(response -> {
+                try {
+                    return toResponseEntity(response, ApiIntegratorService.onClose(response.body(), release),
+                        call, key, cached, ttl);
+                } catch (RuntimeException ex) {
+                    closeQuietly(response.body());
+                    release.run();
+                    throw ex;
+                }
+            }, key != null ? bodyReader : Runnable::run);
+    }
+
+    private HttpRequest buildRequest(HttpMethod method, String url, HttpHeaders headers, Object body) throws JsonProcessingException {
+        HttpRequest.BodyPublisher publisher = body != null
+            ? HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))
+            : HttpRequest.BodyPublishers.noBody();
+
+        // url is already encoded by buildUrl, so it is used as is
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+            .timeout(timeout)
+            .method(method.name(), publisher);
+        headers.forEach((name, values) -> builder.header(name, String.join(", ", values)));
+        return builder.build();
+    }
+
+    /**
+     * {@code input} is the upstream body; every path closes it or hands it over in the response,
+     * whose converter closes it once copied, and closing it releases the in-flight permit.
+     */
+    private ResponseEntity<Object> toResponseEntity(HttpResponse<InputStream> response, InputStream input,
+                                                    GatewayMetrics.Call call, String key,
+                                                    GatewayResponseCache.Entry cached, Duration ttl) {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+        HttpHeaders upstreamHeaders = new HttpHeaders();
+        response.headers().map().forEach(upstreamHeaders::addAll);
+        logger.debug("← Status : {} (async)", status);
+
+        if (status.value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            closeQuietly(input);
+            return responseCache.revalidated(key, cached, ttl);
+        }
+        if (status.is5xxServerError()) {
+            // Already buffered by BODY_HANDLER, so this does not block
+            byte[] body = readBuffered(input);
+            call.recordSize(body.length);
+            throw ApiIntegratorService.upstreamError(status, upstreamHeaders, new String(body, StandardCharsets.UTF_8));
+        }
+
+        HttpHeaders forwarded = ApiIntegratorService.forwardedHeaders(upstreamHeaders);
+        if (key != null) {
+            try {
+                return responseCache.miss(key, status, forwarded, call.countingBody(input), ttl);
+            } catch (IOException ex) {
+                closeQuietly(input);
+                logger.error("Unexpected exception: {}", ex.getMessage(), ex);
+                throw new ApiIntegratorException("Unexpected error calling API integrator", ex);
+            }
+        }
+        if (status.value() == 204 || status.value() == 304 || upstreamHeaders.getContentLength() == 0) {
+            call.recordSize(0);
+            closeQuietly(input);
+            return new ResponseEntity<>(forwarded, status);
+        }
+        // Closing the stream (done by the resource converter) releases the upstream connection
+        return new ResponseEntity<>(new InputStreamResource(call.countingBody(input)), forwarded, status);
+    }
+
+    private static byte[] readBuffered(InputStream input) {
+        try (input) {
+            return input.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void closeQuietly(InputStream input) {
+        try {
+            input.close();
+        } catch (IOException ex) {
+            logger.debug("Failed to close upstream body: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        bodyReader.shutdown();
+    }
+}
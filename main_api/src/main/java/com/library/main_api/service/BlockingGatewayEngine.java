@@ -0,0 +1,30 @@
+package com.library.main_api.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Default engine: the upstream call is made on the servlet thread through the RestTemplate and
+ * its response is returned as is, so requests stay synchronous.
+ */
+@Service
+@Profile("!async-gateway")
+public class BlockingGatewayEngine implements GatewayEngine {
+
+    private final ApiIntegratorService apiService;
+
+    @Autowired
+    public BlockingGatewayEngine(ApiIntegratorService apiService) {
+        this.apiService = apiService;
+    }
+
+    @Override
+    public ResponseEntity<Object> exchange(String path, HttpMethod method, Object body, Map<String, ?> queryParams) {
+        return apiService.exchange(path, method, body, Object.class, queryParams);
+    }
+}
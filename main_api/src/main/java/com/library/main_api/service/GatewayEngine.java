@@ -0,0 +1,41 @@
+package com.library.main_api.service;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.Map;
+
+/**
+ * Relays controller calls to the API Integrator. The engine is chosen by profile: the default
+ * {@link BlockingGatewayEngine} calls through {@link ApiIntegratorService} on the request thread,
+ * while {@link AsyncGatewayEngine} ({@code async-gateway} profile) completes the future from a
+ * non-blocking client, so no servlet thread waits on the upstream call.
+ *
+ * <p>The result is a {@code ResponseEntity} from the blocking engine and a
+ * {@code CompletableFuture} of one from the async engine. Controllers return it as {@code Object}
+ * and Spring MVC picks the handler by its runtime type, so only the async profile pays for an
+ * async dispatch.
+ */
+public interface GatewayEngine {
+
+    Object exchange(String path, HttpMethod method, Object body, Map<String, ?> queryParams);
+
+    default Object get(String path) {
+        return exchange(path, HttpMethod.GET, null, null);
+    }
+
+    default Object get(String path, Map<String, Object> queryParams) {
+        return exchange(path, HttpMethod.GET, null, queryParams);
+    }
+
+    default Object post(String path, Object body) {
+        return exchange(path, HttpMethod.POST, body, null);
+    }
+
+    default Object put(String path, Object body) {
+        return exchange(path, HttpMethod.PUT, body, null);
+    }
+
+    default Object delete(String path) {
+        return exchange(path, HttpMethod.DELETE, null, null);
+    }
+}
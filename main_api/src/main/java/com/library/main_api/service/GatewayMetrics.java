@@ -0,0 +1,176 @@
+package com.library.main_api.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.regex.Pattern;
+
+/**
+ * Metrics of the hop to the API Integrator, recorded by both gateway engines:
+ * <ul>
+ *   <li>{@code api.integrator.requests}: timer by method, route and status class ({@code 2xx} to
+ *       {@code 5xx}, or {@code IO_ERROR} when no response arrived), from sending the request until
+ *       the response can be relayed; for streamed bodies that is when the headers arrive</li>
+ *   <li>{@code api.integrator.requests.active}: calls in flight, by method and route</li>
+ *   <li>{@code api.integrator.response.size}: response body sizes in bytes, by method and route</li>
+ * </ul>
+ * The route is the template of the inbound request (e.g. {@code /books/{id}}) when it matches the
+ * upstream path, which keeps the tags bounded; otherwise numeric segments become {@code {id}}.
+ * Cache hits never reach upstream and are counted by {@link GatewayResponseCache}; the connection
+ * pool gauges are registered in {@code ApiIntegratorConfig}.
+ */
+@Service
+public class GatewayMetrics {
+
+    static final String IO_ERROR = "IO_ERROR";
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final double[] SIZE_BUCKETS = {
+        DataSize.ofKilobytes(1).toBytes(),
+        DataSize.ofKilobytes(4).toBytes(),
+        DataSize.ofKilobytes(16).toBytes(),
+        DataSize.ofKilobytes(64).toBytes(),
+        DataSize.ofKilobytes(256).toBytes(),
+        DataSize.ofMegabytes(1).toBytes(),
+        DataSize.ofMegabytes(4).toBytes()
+    };
+
+    /**
+     * One upstream call. Stopped exactly once, with the response status or as failed; the body
+     * size may be recorded before or after that.
+     */
+    public final class Call {
+        private final String method;
+        private final String route;
+        private final Timer.Sample sample;
+        private final LongTaskTimer.Sample active;
+        private boolean stopped;
+
+        private Call(String method, String route) {
+            this.method = method;
+            this.route = route;
+            this.active = LongTaskTimer.builder("api.integrator.requests.active")
+                .description("Requests to the API Integrator in flight")
+                .tag("method", method)
+                .tag("route", route)
+                .register(meterRegistry)
+                .start();
+            this.sample = Timer.start(meterRegistry);
+        }
+
+        public void stop(int status) {
+            stop(status / 100 + "xx");
+        }
+
+        public void failed() {
+            stop(IO_ERROR);
+        }
+
+        public void recordSize(long bytes) {
+            if (bytes >= 0) {
+                DistributionSummary.builder("api.integrator.response.size")
+                    .description("Response body sizes from the API Integrator")
+                    .baseUnit("bytes")
+                    .serviceLevelObjectives(SIZE_BUCKETS)
+                    .tag("method", method)
+                    .tag("route", route)
+                    .register(meterRegistry)
+                    .record(bytes);
+            }
+        }
+
+        /**
+         * Wraps a body relayed as a stream so its size is recorded when the stream is closed.
+         */
+        public InputStream countingBody(InputStream body) {
+            return new FilterInputStream(body) {
+                private long count;
+                private boolean recorded;
+
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        count++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        count += n;
+                    }
+                    return n;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (!recorded) {
+                            recorded = true;
+                            recordSize(count);
+                        }
+                    }
+                }
+            };
+        }
+
+        private void stop(String status) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            active.stop();
+            sample.stop(Timer.builder("api.integrator.requests")
+                .description("Requests to the API Integrator")
+                .tag("method", method)
+                .tag("route", route)
+                .tag("status", status)
+                .register(meterRegistry));
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    public GatewayMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts timing a call to {@code path} (normalized, as passed to the engines).
+     */
+    public Call start(HttpMethod method, String path) {
+        return new Call(method.name(), route(path));
+    }
+
+    String route(String path) {
+        int query = path.indexOf('?');
+        String bare = query >= 0 ? path.substring(0, query) : path;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (pattern instanceof String template && pathMatcher.match(template, bare)) {
+                return template;
+            }
+        }
+        return NUMERIC_SEGMENT.matcher(bare).replaceAll("/{id}");
+    }
+}
@@ -0,0 +1,243 @@
+package com.library.main_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory cache of GET responses from the API Integrator, used by both gateway engines.
+ * <p>
+ * Entries are keyed by path plus the sorted query parameters and bounded by total body size with
+ * Caffeine's W-TinyLFU eviction. How long an entry is served without asking upstream comes from
+ * the first matching route rule in {@code api.integrator.cache.routes} (Ant patterns; a TTL of 0
+ * means never cached, e.g. for availability). Once an entry is stale it is kept and revalidated
+ * with {@code If-None-Match}, so an unchanged resource costs a 304 rather than a full body. Any
+ * write relayed by this instance clears the cache, since a checkout or an edit can change many
+ * cached pages; writes made elsewhere show up within the route's TTL.
+ */
+@Service
+public class GatewayResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayResponseCache.class);
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+    // Rough per-entry overhead (key, headers, object headers) added to the body size for weighing
+    private static final int ENTRY_OVERHEAD = 512;
+
+    /**
+     * A cached response; immutable, replaced as a whole on refresh.
+     */
+    public static final class Entry {
+        private final HttpStatusCode status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long expiresAt;
+
+        Entry(HttpStatusCode status, HttpHeaders headers, byte[] body, long expiresAt) {
+            this.status = status;
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isFresh() {
+            return System.nanoTime() - expiresAt < 0;
+        }
+
+        public String getETag() {
+            return headers.getETag();
+        }
+
+        ResponseEntity<Object> toResponseEntity(String cacheStatus) {
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(headers);
+            copy.set(CACHE_STATUS_HEADER, cacheStatus);
+            if (body.length == 0) {
+                return new ResponseEntity<>(copy, status);
+            }
+            return new ResponseEntity<>(body, copy, status);
+        }
+    }
+
+    private record Route(String pattern, Duration ttl) {
+    }
+
+    private final boolean enabled;
+    private final long maxEntryBytes;
+    private final List<Route> routes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Cache<String, Entry> cache;
+    private final Counter hits;
+    private final Counter revalidations;
+    private final Counter misses;
+
+    @Autowired
+    public GatewayResponseCache(
+            @Value("${api.integrator.cache.enabled:true}")          boolean enabled,
+            @Value("${api.integrator.cache.max-size:64MB}")         DataSize maxSize,
+            @Value("${api.integrator.cache.max-entry-size:1MB}")    DataSize maxEntrySize,
+            @Value("${api.integrator.cache.routes:/books/**=30s}")  String routes,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled       = enabled;
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.routes        = parseRoutes(routes);
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((String key, Entry entry) -> entry.body.length + key.length() * 2 + ENTRY_OVERHEAD)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "api-integrator-responses");
+        this.hits          = cacheCounter(meterRegistry, "hit");
+        this.revalidations = cacheCounter(meterRegistry, "revalidated");
+        this.misses        = cacheCounter(meterRegistry, "miss");
+
+        logger.info("Gateway response cache enabled: {}, max size: {}, routes: {}", enabled, maxSize, this.routes);
+    }
+
+    /**
+     * TTL for a path, or {@code null} when its responses are not cached.
+     */
+    public Duration ttlFor(String path) {
+        if (!enabled) {
+            return null;
+        }
+        for (Route route : routes) {
+            if (pathMatcher.match(route.pattern(), path)) {
+                return route.ttl().isZero() || route.ttl().isNegative() ? null : route.ttl();
+            }
+        }
+        return null;
+    }
+
+    public String key(String path, Map<String, ?> queryParams) {
+        if (queryParams == null || queryParams.isEmpty()) {
+            return path;
+        }
+        StringBuilder key = new StringBuilder(path);
+        char separator = '?';
+        for (Map.Entry<String, ?> param : new TreeMap<>(queryParams).entrySet()) {
+            if (param.getValue() != null) {
+                key.append(separator).append(param.getKey()).append('=').append(param.getValue());
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * The cached entry for a key, fresh or stale, or {@code null}.
+     */
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public ResponseEntity<Object> hit(Entry entry) {
+        hits.increment();
+        return entry.toResponseEntity("HIT");
+    }
+
+    /**
+     * Upstream answered 304 for a stale entry: serve it again for another TTL.
+     */
+    public ResponseEntity<Object> revalidated(String key, Entry entry, Duration ttl) {
+        revalidations.increment();
+        Entry refreshed = new Entry(entry.status, entry.headers, entry.body, System.nanoTime() + ttl.toNanos());
+        cache.put(key, refreshed);
+        return refreshed.toResponseEntity("REVALIDATED");
+    }
+
+    /**
+     * Records a full upstream response. Only 200 responses that fit {@code max-entry-size} are kept.
+     */
+    public ResponseEntity<Object> miss(String key, HttpStatusCode status, HttpHeaders headers, byte[] body, Duration ttl) {
+        misses.increment();
+        Entry entry = new Entry(status, headers, body, System.nanoTime() + ttl.toNanos());
+        if (status.value() == HttpStatus.OK.value() && body.length <= maxEntryBytes) {
+            cache.put(key, entry);
+        } else {
+            cache.invalidate(key);
+        }
+        return entry.toResponseEntity("MISS");
+    }
+
+    /**
+     * Records an upstream response whose body is still being read. At most {@code max-entry-size}
+     * bytes are buffered: a body declared or found to be larger is relayed as a stream and not
+     * cached, so a large listing is never held on heap. The body is closed once buffered; when it
+     * is relayed, closing the returned resource closes it.
+     */
+    public ResponseEntity<Object> miss(String key, HttpStatusCode status, HttpHeaders headers, InputStream body,
+                                       Duration ttl) throws IOException {
+        InputStream relayed = body;
+        if (headers.getContentLength() <= maxEntryBytes) {
+            // -1 (chunked) also reads ahead, up to one byte past the limit
+            byte[] buffered = body.readNBytes((int) Math.min(maxEntryBytes + 1, Integer.MAX_VALUE - 8));
+            if (buffered.length <= maxEntryBytes) {
+                body.close();
+                return miss(key, status, headers, buffered, ttl);
+            }
+            relayed = new SequenceInputStream(new ByteArrayInputStream(buffered), body);
+        }
+        misses.increment();
+        cache.invalidate(key);
+        HttpHeaders copy = new HttpHeaders();
+        copy.putAll(headers);
+        copy.set(CACHE_STATUS_HEADER, "MISS");
+        return new ResponseEntity<>(new InputStreamResource(relayed), copy, status);
+    }
+
+    public void invalidateAll() {
+        if (enabled) {
+            cache.invalidateAll();
+        }
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("api.integrator.cache.requests")
+            .description("Cacheable GETs by outcome: served from cache, revalidated upstream (304) or fetched")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    // "pattern=ttl,pattern=ttl,..." in match order
+    private static List<Route> parseRoutes(String routes) {
+        List<Route> parsed = new ArrayList<>();
+        for (String rule : routes.split(",")) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            int eq = rule.lastIndexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Invalid cache route rule (expected pattern=ttl): " + rule);
+            }
+            parsed.add(new Route(rule.substring(0, eq).trim(), DurationStyle.detectAndParse(rule.substring(eq + 1).trim())));
+        }
+        return parsed;
+    }
+}